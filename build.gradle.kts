@@ -12,6 +12,19 @@ repositories {
     mavenCentral()
 }
 
+// Microbenchmarks live in their own source set (src/jmh/java) and see everything in main
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations {
+    named("jmhImplementation") { extendsFrom(configurations.implementation.get()) }
+    named("jmhRuntimeOnly") { extendsFrom(configurations.runtimeOnly.get()) }
+}
+
 dependencies {
     // ProxyMusic
     implementation("org.audiveris:proxymusic:4.0.3")
@@ -33,6 +46,10 @@ dependencies {
 
     // Fluent assertions library
     testImplementation("org.assertj:assertj-core:3.27.6")
+
+    // JMH, for the `jmh` source set/task
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 // ======================================== CUSTOM TASKS ======================================== //
@@ -67,3 +84,30 @@ val testResourceDir: java.nio.file.Path = Paths.get("src/test/resources")
 tasks.register<Delete>("deleteMuseScoreBackup") {
     delete(testResourceDir.resolve(".mscbackup"))
 }
+
+// Runs every benchmark in src/jmh (or only those matching -Pjmh.include=<regex>), and writes results as JSON to
+//     build/reports/jmh/results.json so runs can be diffed against each other. -Pjmh.prof=<profiler> adds a JMH
+//     profiler, e.g. `gc` for bytes allocated per operation.
+//     e.g. ./gradlew jmh -Pjmh.include=IntervalTree
+//          ./gradlew jmh -Pjmh.include=PieceBuilder -Pjmh.prof=gc
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH microbenchmarks."
+
+    val jmh = sourceSets["jmh"]
+    dependsOn(jmh.classesTaskName)
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+
+    val resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { resultsFile.get().asFile.parentFile.mkdirs() }
+
+    val profiler = providers.gradleProperty("jmh.prof").orNull
+    args(listOfNotNull(
+        providers.gradleProperty("jmh.include").orNull,
+        profiler?.let { "-prof" },
+        profiler,
+        "-rf", "json",
+        "-rff", resultsFile.get().asFile.absolutePath
+    ))
+}
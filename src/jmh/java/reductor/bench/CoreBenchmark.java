@@ -0,0 +1,90 @@
+package reductor.bench;
+
+
+import org.openjdk.jmh.annotations.*;
+import reductor.core.Bucket;
+import reductor.core.Column;
+import reductor.core.Note;
+import reductor.core.Range;
+import reductor.core.RangeUtil;
+import reductor.core.Rhythm;
+import reductor.util.IntervalTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * The per-note work done while assembling a Piece: deriving column ranges from start ticks, sorting notes into
+ * Buckets, constructing Columns, and classifying rhythms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoreBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    @Param({ "SPARSE", "MEDIUM", "DENSE" })
+    public SyntheticNotes.Density density;
+
+    private List<Note> shuffled;
+    private Set<Integer> startTicks;
+    private int lastTick;
+    private List<Range> columnRanges;
+    private List<List<Note>> columnNotes;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Note> notes = SyntheticNotes.notes(this.size, this.density, 42);
+
+        this.shuffled = new ArrayList<>(notes);
+        Collections.shuffle(this.shuffled, new Random(7));
+
+        this.startTicks = new HashSet<>();
+        for (Note note : notes) { this.startTicks.add(note.start()); }
+
+        IntervalTree<Note> tree = new IntervalTree<>(notes);
+        this.lastTick = tree.getLastTick();
+        this.columnRanges = RangeUtil.fromStartTicks(this.startTicks, this.lastTick + 1);
+        this.columnNotes = tree.queryAll(this.columnRanges);
+    }
+
+
+    @Benchmark
+    public List<Range> fromStartTicks() {
+        return RangeUtil.fromStartTicks(this.startTicks, this.lastTick + 1);
+    }
+
+    @Benchmark
+    public List<Rhythm> rhythmClassification() {
+        List<Rhythm> rhythms = new ArrayList<>(this.shuffled.size());
+        for (Note note : this.shuffled) { rhythms.add(new Rhythm(note.getRange().duration(), 480)); }
+        return rhythms;
+    }
+
+    @Benchmark
+    public Bucket bucketSort() {
+        return new Bucket(this.shuffled);
+    }
+
+    @Benchmark
+    public List<Column> columnConstruction() {
+        List<Column> columns = new ArrayList<>(this.columnRanges.size());
+        for (int i = 0; i < this.columnRanges.size(); i++) {
+            columns.add(new Column(this.columnNotes.get(i), this.columnRanges.get(i)));
+        }
+        return columns;
+    }
+
+}
@@ -0,0 +1,98 @@
+package reductor.bench;
+
+
+import org.openjdk.jmh.annotations.*;
+import reductor.core.Column;
+import reductor.core.Hand;
+import reductor.core.HandSplitter;
+import reductor.core.KeySignature;
+import reductor.core.Note;
+import reductor.core.Range;
+import reductor.core.Tempo;
+import reductor.core.TimeSignature;
+import reductor.core.builders.PieceBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link HandSplitter} over every Column of a piece, sequentially ({@code threads} = 1) and in a pool, for a local
+ * and a windowed strategy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandSplitterBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    @Param({ "MEDIUM", "DENSE" })
+    public SyntheticNotes.Density density;
+
+    @Param({ "1", "4", "0" }) // 0: all cores
+    public int threads;
+
+    private List<Column> columns;
+    private ForkJoinPool pool;
+    private HandSplitter local;
+    private HandSplitter windowed;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Note> notes = SyntheticNotes.notes(this.size, this.density, 42);
+        int lastTick = 0;
+        for (Note note : notes) { lastTick = Math.max(lastTick, note.stop()); }
+        Range whole = new Range(0, lastTick + 1);
+        this.columns = PieceBuilder.builder(PieceBuilderBenchmark.RESOLUTION)
+                .note(notes)
+                .timeSignature(new TimeSignature(4, 4, whole))
+                .keySignature(new KeySignature("C", whole))
+                .tempo(new Tempo(100, whole))
+                .build()
+                .getColumns();
+
+        int parallelism = this.threads == 0 ? Runtime.getRuntime().availableProcessors() : this.threads;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+
+        this.local = HandSplitter.DEFAULT;
+        // Splits at the median pitch of the surrounding columns
+        this.windowed = HandSplitter.windowed("median", 4, (window, index) -> {
+            long sum = 0;
+            int count = 0;
+            for (Column column : window) {
+                for (Note note : column.getNotesView()) { sum += note.pitch(); count++; }
+            }
+            int split = count == 0 ? 60 : (int) (sum / count);
+            List<Note> own = window.get(index).getNotesView();
+            Hand[] hands = new Hand[own.size()];
+            for (int i = 0; i < hands.length; i++) {
+                hands[i] = own.get(i).pitch() < split ? Hand.LEFT : Hand.RIGHT;
+            }
+            return hands;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (this.pool != null) { this.pool.shutdown(); }
+    }
+
+
+    @Benchmark
+    public void local() {
+        this.local.split(this.columns, this.pool);
+    }
+
+    @Benchmark
+    public void windowed() {
+        this.windowed.split(this.columns, this.pool);
+    }
+
+}
@@ -0,0 +1,112 @@
+package reductor.bench;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import reductor.core.Range;
+import reductor.util.IntervalIndex;
+import reductor.util.IntervalTree;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Construction and queries for {@link IntervalTree}, with {@link IntervalIndex} alongside for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntervalTreeBenchmark {
+
+    // Query windows are about a beat wide
+    private static final int WINDOW = 480;
+    private static final int QUERIES = 1 << 12;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    @Param({ "SPARSE", "MEDIUM", "DENSE" })
+    public SyntheticNotes.Density density;
+
+    private List<Range> ranges;
+    private IntervalTree<Range> tree;
+    private IntervalIndex<Range> index;
+    private int[] points;
+    private int next;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.ranges = SyntheticNotes.ranges(this.size, this.density, 42);
+        this.tree = new IntervalTree<>(this.ranges);
+        this.index = new IntervalIndex<>(this.ranges);
+        this.points = new Random(7).ints(QUERIES, 0, this.tree.getLastTick()).toArray();
+        this.next = 0;
+    }
+
+    private int nextPoint() {
+        this.next = (this.next + 1) & (QUERIES - 1);
+        return this.points[this.next];
+    }
+
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntervalTree<Range> buildTree() {
+        return new IntervalTree<>(this.ranges);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntervalIndex<Range> buildIndex() {
+        return new IntervalIndex<>(this.ranges);
+    }
+
+    @Benchmark
+    public List<Range> pointQueryTree() {
+        return this.tree.query(nextPoint());
+    }
+
+    @Benchmark
+    public List<Range> pointQueryIndex() {
+        return this.index.query(nextPoint());
+    }
+
+    @Benchmark
+    public List<Range> windowQueryTree() {
+        int point = nextPoint();
+        return this.tree.query(new Range(point, point + WINDOW));
+    }
+
+    @Benchmark
+    public List<Range> windowQueryIndex() {
+        int point = nextPoint();
+        return this.index.query(new Range(point, point + WINDOW));
+    }
+
+    /*
+     The callback query and findFirst should allocate nothing per lookup; run with -Pjmh.prof=gc and check that
+     gc.alloc.rate.norm is ~0 B/op for both (the list queries above allocate a list per lookup).
+    */
+
+    @Benchmark
+    public void pointQueryTreeCallback(Blackhole blackhole) {
+        this.tree.query(nextPoint(), blackhole::consume);
+    }
+
+    @Benchmark
+    public Range findFirstTree() {
+        return this.tree.findFirst(nextPoint());
+    }
+
+    @Benchmark
+    public int countAtTree() {
+        return this.tree.countAt(nextPoint());
+    }
+
+}
@@ -0,0 +1,109 @@
+package reductor.bench;
+
+
+import org.openjdk.jmh.annotations.*;
+import reductor.core.KeySignature;
+import reductor.core.Measure;
+import reductor.core.Note;
+import reductor.core.Piece;
+import reductor.core.Range;
+import reductor.core.Tempo;
+import reductor.core.TimeSignature;
+import reductor.core.builders.PieceBuilder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * End-to-end {@link PieceBuilder#build()}: note tree, columns, measures; assembled by tree queries ({@code build})
+ * and by a single sweep ({@code buildSweepLine}, see {@link PieceBuilder#sweepLine}); on the calling thread
+ * ({@code threads} = 1) and in a pool (see {@link PieceBuilder#pool}). {@code lazyOneMeasure} builds lazily (see
+ * {@link PieceBuilder#lazy}) and then looks at a single measure, so past the note index it should not grow with
+ * {@code size}.
+ * <p>
+ * Mostly useful for allocation, so run it with the GC profiler, which reports {@code gc.alloc.rate.norm}
+ * (bytes allocated per build):
+ * <pre>
+ *     ./gradlew jmh -Pjmh.include=PieceBuilder -Pjmh.prof=gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PieceBuilderBenchmark {
+
+    public static final int RESOLUTION = 480;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    @Param({ "SPARSE", "MEDIUM", "DENSE" })
+    public SyntheticNotes.Density density;
+
+    @Param({ "1", "0" }) // 0: all cores
+    public int threads;
+
+    private List<Note> notes;
+    private Range whole;
+    private ForkJoinPool pool;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.notes = SyntheticNotes.notes(this.size, this.density, 42);
+        int lastTick = 0;
+        for (Note note : this.notes) { lastTick = Math.max(lastTick, note.stop()); }
+        this.whole = new Range(0, lastTick + 1);
+
+        int parallelism = this.threads == 0 ? Runtime.getRuntime().availableProcessors() : this.threads;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (this.pool != null) { this.pool.shutdown(); }
+    }
+
+    @Benchmark
+    public Piece build() {
+        return PieceBuilder.builder(RESOLUTION)
+                .note(this.notes)
+                .timeSignature(new TimeSignature(4, 4, this.whole))
+                .keySignature(new KeySignature("C", this.whole))
+                .tempo(new Tempo(100, this.whole))
+                .pool(this.pool)
+                .build();
+    }
+
+    @Benchmark
+    public Piece buildSweepLine() {
+        return PieceBuilder.builder(RESOLUTION)
+                .note(this.notes)
+                .timeSignature(new TimeSignature(4, 4, this.whole))
+                .keySignature(new KeySignature("C", this.whole))
+                .tempo(new Tempo(100, this.whole))
+                .sweepLine(true)
+                .pool(this.pool)
+                .build();
+    }
+
+    @Benchmark
+    public List<Measure> lazyOneMeasure() {
+        Piece piece = PieceBuilder.builder(RESOLUTION)
+                .note(this.notes)
+                .timeSignature(new TimeSignature(4, 4, this.whole))
+                .keySignature(new KeySignature("C", this.whole))
+                .tempo(new Tempo(100, this.whole))
+                .pool(this.pool)
+                .lazy(true)
+                .build();
+        int middle = this.whole.getHigh() / 2;
+        return piece.getMeasures(new Range(middle, middle));
+    }
+
+}
@@ -0,0 +1,51 @@
+package reductor.bench;
+
+
+import org.openjdk.jmh.annotations.*;
+import reductor.core.Pitch;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Pitch construction from a MIDI value (which goes through the string form) and from spelled names, next to the
+ * shared instances handed out by {@link Pitch#of}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PitchBenchmark {
+
+    private static final String[] NAMES = { "C4", "c#4", "Db3", "bb2", "F#5", "Ebb6", "Bx1", "a0" };
+
+    private int next;
+
+
+    @Benchmark
+    public Pitch fromMidiValue() {
+        this.next = (this.next + 1) & 127;
+        return new Pitch(this.next);
+    }
+
+    @Benchmark
+    public Pitch fromString() {
+        this.next = (this.next + 1) & 7;
+        return new Pitch(NAMES[this.next]);
+    }
+
+    @Benchmark
+    public Pitch ofMidiValue() {
+        this.next = (this.next + 1) & 127;
+        return Pitch.of(this.next);
+    }
+
+    @Benchmark
+    public Pitch ofString() {
+        this.next = (this.next + 1) & 7;
+        return Pitch.of(NAMES[this.next]);
+    }
+
+}
@@ -0,0 +1,75 @@
+package reductor.bench;
+
+
+import reductor.core.Note;
+import reductor.core.Range;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Seeded, note-like inputs for the benchmarks, so every run (and every machine) measures the same data.
+ */
+public final class SyntheticNotes {
+
+    private SyntheticNotes() {}
+
+
+    /**
+     * How much notes pile up on top of each other.
+     */
+    public enum Density {
+
+        // Short notes, a few at a time: ~2-3 notes sounding at any tick
+        SPARSE(4, 2),
+        // Chords, and notes of up to a half note: ~10 sounding at any tick
+        MEDIUM(2, 8),
+        // Orchestral tutti with sustained parts: ~30 sounding at any tick
+        DENSE(1, 32);
+
+        // An onset moves forward one sixteenth with probability 1/(1 + stackOdds); otherwise it stacks (a chord)
+        private final int stackOdds;
+        // Durations are 1..maxSixteenths sixteenths
+        private final int maxSixteenths;
+
+        Density(int stackOdds, int maxSixteenths) {
+            this.stackOdds = stackOdds;
+            this.maxSixteenths = maxSixteenths;
+        }
+
+    }
+
+    public static final int SIXTEENTH = 120;
+
+    /*
+     Starts march forward a sixteenth at a time, with some stacked on the same tick, and durations are a
+     whole number of sixteenths.
+    */
+    public static List<Range> ranges(int n, Density density, long seed) {
+        Random random = new Random(seed);
+        List<Range> ranges = new ArrayList<>(n);
+        int tick = 0;
+        for (int i = 0; i < n; i++) {
+            if (random.nextInt(1 + density.stackOdds) == 0) { tick += SIXTEENTH; }
+            int duration = SIXTEENTH * (1 + random.nextInt(density.maxSixteenths));
+            ranges.add(new Range(tick, tick + duration - 1));
+        }
+        return ranges;
+    }
+
+    /**
+     * Same shape as {@link #ranges}, with pitches spread over the piano.
+     */
+    public static List<Note> notes(int n, Density density, long seed) {
+        Random random = new Random(seed ^ 0x9E3779B97F4A7C15L);
+        List<Note> notes = new ArrayList<>(n);
+        for (Range range : ranges(n, density, seed)) {
+            notes.add(NoteBuilder.builder().pitch(21 + random.nextInt(88)).range(range).build());
+        }
+        return notes;
+    }
+
+}
@@ -25,19 +25,26 @@ public class Box implements Ranged, Noted, Comparable<Box> {
     }
 
     /**
-     * Find the lowest and highest pitches in this Box.
+     * Find the lowest and highest pitches in this Box (-1 for both if it is empty). For rolling floors and ceilings
+     * across a piece, see {@linkplain SlidingBox}.
      */
     private void findFloorAndCeiling() {
         int floor = Integer.MAX_VALUE;
         int ceiling = Integer.MIN_VALUE;
         for (Column col : this.columns) {
-            for (Note note : col.getNotes()) {
-                if (note.pitch() < floor) { floor = note.pitch(); }
-                if (note.pitch() > ceiling) { ceiling = note.pitch(); }
-            }
+            ColumnFeatures features = col.getFeatures();
+            if (features.count() == 0) { continue; }
+            if (features.low() < floor) { floor = features.low(); }
+            if (features.high() > ceiling) { ceiling = features.high(); }
         }
+        this.floor = floor == Integer.MAX_VALUE ? -1 : floor;
+        this.ceiling = ceiling == Integer.MIN_VALUE ? -1 : ceiling;
     }
 
+    public int getFloor() { return this.floor; }
+
+    public int getCeiling() { return this.ceiling; }
+
     public static Map<String, Box> getBoxes(ArrayList<Column> columns) {
 
         Map<String, Box> map = new HashMap<>();
@@ -62,12 +69,12 @@ public class Box implements Ranged, Noted, Comparable<Box> {
     //public Range getActualRange() { return Range.concatenate(this.elems); }
 
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
 
     @Override
     public ArrayList<Note> getNotes() {
         ArrayList<Note> notes = new ArrayList<>();
-        for (Column col : this.columns) { notes.addAll( col.getNotes() ); }
+        for (Column col : this.columns) { notes.addAll( col.getNotesView() ); }
         return notes;
     }
 
@@ -3,6 +3,8 @@ package reductor.core;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 
@@ -12,26 +14,49 @@ import java.util.stream.Collectors;
  * Buckets themselves are Noted (meaning they contain Notes), however, this class is primarily meant to serve as the
  * backbone of the Noted interface itself. All Noted implementations (except the primitive Note itself) have a Bucket
  * member (which acts as their note container/collection).
+ * <p>
+ * A Bucket remembers the order it was last sorted into (natural ordering, i.e. by pitch, unless sorted with a
+ * comparator) and whether it is still in it, so sorting an already-sorted Bucket is a no-op, and Buckets already in
+ * natural order can be combined with a linear {@linkplain Bucket#merge}. Mutators keep track of whether they broke
+ * the order.
  */
 public class Bucket extends AbstractList<Note> implements Noted {
 
     private final ArrayList<Note> notes;
 
+    // The order this Bucket was last sorted into; null is natural ordering
+    private Comparator<? super Note> order;
+    // Whether notes are (known to be) in that order. False only means "not known"; see sort()
+    private boolean sorted;
+
 
     public Bucket(List<Note> notes) {
         if (notes == null) { notes = new ArrayList<>(); }
         this.notes = new ArrayList<>(notes);
         //this.notes = new ArrayList<>();
         //for (Note note : notes) { this.notes.add( new Note(note) ); } // deep copy?
-        this.notes.sort(null);
+        this.order = null;
+        this.sorted = false;
+        this.sort(null);
     }
 
     public <T extends Noted> Bucket(T noteContainer) {
-        this(noteContainer.getNotes());
+        this(noteContainer.getNotesView());
+    }
+
+    /**
+     * Copy constructor; the copy is in whatever order {@code other} is, without re-sorting.
+     */
+    public Bucket(Bucket other) {
+        this.notes = new ArrayList<>(other.notes);
+        this.order = other.order;
+        this.sorted = other.sorted;
     }
 
     public Bucket() {
-        this(new ArrayList<>());
+        this.notes = new ArrayList<>();
+        this.order = null;
+        this.sorted = true;
     }
 
 
@@ -47,14 +72,29 @@ public class Bucket extends AbstractList<Note> implements Noted {
     @Override public boolean isEmpty() { return this.notes.isEmpty(); }
 
     @Override public Note get(int index) { return this.notes.get(index); }
+    @Override public Note set(int index, Note note) {
+        Note old = this.notes.set(index, note);
+        keepsOrderAt(index);
+        return old;
+    }
     @Override public Note getFirst() { return this.notes.isEmpty() ? null : this.notes.getFirst(); }
     @Override public Note getLast() { return this.notes.isEmpty() ? null : this.notes.getLast(); }
 
-    @Override public boolean add(Note note) { return this.notes.add(note); }
-    @Override public void add(int index, Note note) { this.notes.add(index, note); }
-    @Override public void addFirst(Note note) { this.notes.addFirst(note); }
-    @Override public void addLast(Note note) { this.notes.addLast(note); }
-    @Override public boolean addAll(Collection<? extends Note> notes) { return this.notes.addAll(notes); }
+    @Override public boolean add(Note note) {
+        this.notes.add(note);
+        keepsOrderAt(this.notes.size() - 1);
+        return true;
+    }
+    @Override public void add(int index, Note note) {
+        this.notes.add(index, note);
+        keepsOrderAt(index);
+    }
+    @Override public void addFirst(Note note) { this.add(0, note); }
+    @Override public void addLast(Note note) { this.add(note); }
+    @Override public boolean addAll(Collection<? extends Note> notes) {
+        this.sorted = false;
+        return this.notes.addAll(notes);
+    }
 
     @Override public Note remove(int index) { return this.notes.remove(index); }
     @Override public boolean remove(Object note) { return this.notes.remove(note); }
@@ -62,7 +102,22 @@ public class Bucket extends AbstractList<Note> implements Noted {
     @Override public Note removeLast() { return this.notes.removeLast(); }
 
 
-    @Override public void sort(Comparator<? super Note> c) { this.notes.sort(c); }
+    /**
+     * Sorts (stably) by {@code c}, or by natural ordering if it is null. Does nothing if this Bucket is already in
+     * that order; it is only actually sorted if an O(n) check finds it out of order.
+     */
+    @Override public void sort(Comparator<? super Note> c) {
+        if (this.sorted  &&  Objects.equals(this.order, c)) { return; }
+        if (!isSorted(this.notes, c)) { this.notes.sort(c); }
+        this.order = c;
+        this.sorted = true;
+    }
+    @Override public void replaceAll(UnaryOperator<Note> operator) {
+        this.notes.replaceAll(operator);
+        // Natural ordering is by pitch, so transforms that leave pitches alone keep it
+        boolean keepsPitches = operator instanceof NoteTransform transform  &&  !transform.changesPitch();
+        if (!(keepsPitches  &&  this.order == null)) { this.sorted = false; }
+    }
     @Override public void forEach(Consumer<? super Note> action) { this.notes.forEach(action); }
 
     @Override public Iterator<Note> iterator() { return this.notes.iterator(); }
@@ -70,10 +125,144 @@ public class Bucket extends AbstractList<Note> implements Noted {
     //endregion
 
 
+    /**
+     * Applies {@code transform} to every note, in one pass, into a new Bucket; this Bucket is unchanged. Notes the
+     * transform leaves alone are shared, not copied. Notes stay where they are and the new Bucket remembers this
+     * one's order, except that a Bucket in pitch order is re-sorted if the transform changes pitches. A Bucket in
+     * any other order (or not known to be in one) gives a new Bucket that is not known to be sorted either.
+     * <p>
+     * To transform this Bucket's notes in place, use {@code replaceAll(transform)}.
+     */
+    public Bucket mapNotes(NoteTransform transform) {
+        Bucket out = new Bucket();
+        out.notes.ensureCapacity(this.notes.size());
+        for (Note note : this.notes) { out.notes.add(transform.apply(note)); }
+        // Only pitch order is known to survive a transform (or be cheaply restored); see replaceAll()
+        boolean pitchOrdered = this.order == null  &&  this.sorted;
+        if (pitchOrdered  &&  transform.changesPitch()) { out.notes.sort(null); }
+        out.order = this.order;
+        out.sorted = pitchOrdered;
+        return out;
+    }
+
     public static Bucket fromNotes(ArrayList<Note> notes) { return new Bucket(notes); }
 
     @Override public ArrayList<Note> getNotes() { return new ArrayList<>(this.notes); }
 
+    @Override public List<Note> getNotesView() { return Collections.unmodifiableList(this.notes); }
+
+
+    //region ordering
+
+    /**
+     * Returns the comparator this Bucket was last sorted by (null for natural ordering).
+     */
+    public Comparator<? super Note> getOrder() { return this.order; }
+
+    /**
+     * Returns true if this Bucket is in the order returned by {@linkplain Bucket#getOrder}.
+     */
+    public boolean isSorted() {
+        if (!this.sorted) { this.sorted = isSorted(this.notes, this.order); }
+        return this.sorted;
+    }
+
+    /**
+     * Merges Buckets into one new Bucket in natural order (by pitch), in O(n log k) for k Buckets (so, linear for the
+     * handful of Columns in a Measure). Inputs not in natural order are merged from a sorted copy; inputs are never
+     * changed.
+     * <p>
+     * Ties go to the earlier Bucket in {@code buckets}, so the result is exactly what stably sorting the
+     * concatenation of {@code buckets} would give.
+     *
+     * @param keep Only notes passing this end up in the result.
+     */
+    public static Bucket merge(List<Bucket> buckets, Predicate<? super Note> keep) {
+
+        List<List<Note>> runs = new ArrayList<>(buckets.size());
+        int total = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket.isEmpty()) { continue; }
+            List<Note> run = bucket.order == null  &&  bucket.isSorted() ? bucket.notes : sortedCopy(bucket.notes);
+            runs.add(run);
+            total += run.size();
+        }
+
+        Bucket out = new Bucket();
+        out.notes.ensureCapacity(total);
+
+        // A binary min-heap of run indices, keyed on each run's next note
+        int k = runs.size();
+        int[] positions = new int[k];
+        int[] heap = new int[k];
+        for (int i = 0; i < k; i++) { heap[i] = i; }
+        for (int i = k / 2 - 1; 0 <= i; i--) { siftDown(heap, k, i, runs, positions); }
+
+        int heapSize = k;
+        while (0 < heapSize) {
+            int run = heap[0];
+            Note next = runs.get(run).get(positions[run]++);
+            if (keep.test(next)) { out.notes.add(next); }
+            if (positions[run] == runs.get(run).size()) { heap[0] = heap[--heapSize]; }
+            siftDown(heap, heapSize, 0, runs, positions);
+        }
+
+        return out;
+    }
+
+    public static Bucket merge(List<Bucket> buckets) {
+        return merge(buckets, note -> true);
+    }
+
+    private static void siftDown(int[] heap, int heapSize, int i, List<List<Note>> runs, int[] positions) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize  &&  precedes(heap[left], heap[smallest], runs, positions)) { smallest = left; }
+            if (right < heapSize  &&  precedes(heap[right], heap[smallest], runs, positions)) { smallest = right; }
+            if (smallest == i) { return; }
+            int swap = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = swap;
+            i = smallest;
+        }
+    }
+
+    private static boolean precedes(int run, int other, List<List<Note>> runs, int[] positions) {
+        int c = runs.get(run).get(positions[run]).compareTo(runs.get(other).get(positions[other]));
+        return c != 0 ? c < 0 : run < other;
+    }
+
+    private static List<Note> sortedCopy(List<Note> notes) {
+        List<Note> copy = new ArrayList<>(notes);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static boolean isSorted(List<Note> notes, Comparator<? super Note> c) {
+        for (int i = 1; i < notes.size(); i++) {
+            if (compare(notes.get(i - 1), notes.get(i), c) > 0) { return false; }
+        }
+        return true;
+    }
+
+    private static int compare(Note note, Note other, Comparator<? super Note> c) {
+        return c == null ? note.compareTo(other) : c.compare(note, other);
+    }
+
+    // Clears the sorted flag if the note at index is out of order with its neighbours
+    private void keepsOrderAt(int index) {
+        if (!this.sorted) { return; }
+        Note note = this.notes.get(index);
+        if (0 < index  &&  compare(this.notes.get(index - 1), note, this.order) > 0) { this.sorted = false; }
+        if (index + 1 < this.notes.size()  &&  compare(note, this.notes.get(index + 1), this.order) > 0) {
+            this.sorted = false;
+        }
+    }
+
+    //endregion
+
     @Override public String toString() {
         if (notes.isEmpty()) { return " { }"; }
         StringBuilder builder = new StringBuilder();
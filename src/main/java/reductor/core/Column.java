@@ -1,13 +1,11 @@
 package reductor.core;
 
-//import reductor.devv.HandSplittingFunctions;
-
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -23,9 +21,17 @@ import java.util.stream.Collectors;
 public class Column implements Ranged, Noted, Comparable<Column> {
 
     /**
-     * The notes belonging to this Column.
+     * The notes belonging to this Column, in pitch order. In a Column built from rows, null until first asked for;
+     * see {@linkplain Column#notes()}.
+     */
+    private volatile Bucket notes;
+
+    /**
+     * For a Column built from rows of a {@linkplain NoteTable} (as a Piece's are): the table, and the rows, in pitch
+     * order, that its notes are made from. Both null in a Column built from Notes.
      */
-    final Bucket notes;
+    private final NoteTable table;
+    private final int[] rows;
 
     /**
      * The range this Column covers, though that may differ from the unison of Ranges of its constituent notes due to
@@ -33,6 +39,18 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      * */
     final Range range;
 
+    /**
+     * The {@linkplain InstrumentRegistry} ids of this Column's notes; kept up to date by {@linkplain Column#add} and
+     * {@linkplain Column#remove}.
+     */
+    private final BitSet instruments;
+
+    /**
+     * Pitch features of this Column's notes, computed in one pass; like {@linkplain Column#instruments}, kept up to
+     * date by {@linkplain Column#add} and {@linkplain Column#remove}.
+     */
+    private ColumnFeatures features;
+
     /**
      * Pure Columns are those that contain only Notes that exactly match the Column's range (i.e. no notes extend
      * behind or ahead of the Column).
@@ -43,16 +61,24 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      * */
     boolean isSemiPure;
 
-    ///**
-    // * The algorithm used to decide the boundaries of notes that go to each hand. Uses a default function upon
-    // * construction, but, when put into larger contexts, such as when this Column is part of a collection of Columns
-    // * (e.g. in a {@linkplain Box}), the container might decide that a different heuristic might be better for
-    // * splitting the hands, at which point it would call {@linkplain Column#splitHands}; an example of this would be if
-    // * the hands could be split based on textural or melodic differences, rather than using defaults. A Column, of
-    // * course, cannot know this until that time.
-    // */
+    /**
+     * The algorithm used to decide the boundaries of notes that go to each hand. Uses a default function, run the
+     * first time the hands are asked for, but, when put into larger contexts, such as when this Column is part of a collection of Columns
+     * (e.g. in a {@linkplain Box}), the container might decide that a different heuristic might be better for
+     * splitting the hands, at which point it would call {@linkplain Column#splitHands}; an example of this would be if
+     * the hands could be split based on textural or melodic differences, rather than using defaults. A Column, of
+     * course, cannot know this until that time.
+     * <p>
+     * To re-split every Column of a Piece (in parallel), see {@linkplain HandSplitter}.
+     */
     Consumer<Column> splitFunc;
 
+    /**
+     * Whether the hands below are up to date. Until the hands are first asked for (or assigned), a Column has none;
+     * see {@linkplain Column#ensureSplit}. Hand Columns are always split (they have no hands of their own).
+     */
+    private volatile boolean split;
+
     Column LH;
     Column middle;
     Column RH;
@@ -66,21 +92,58 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      */
     public Column(List<Note> notes, Range range) {
 
-        this.range = new Range(range);
+        if (range == null) { throw new NullPointerException("range can't be null"); }
+        this.range = range;
 
+        // Bucket's natural ordering is by pitch
         this.notes = new Bucket(notes);
-        this.notes.sort(Comparator.comparingInt(Note::pitch));
+        this.table = null;
+        this.rows = null;
 
         this.isPure = true;
         this.isSemiPure = true;
         this.assignPurity();
         this.markHoldovers();
+        this.instruments = InstrumentRegistry.maskOf(this.notes);
+        this.features = ColumnFeatures.of(this.notes, this.range);
+
+        // Split lazily: most Columns are re-split by a HandSplitter anyway
+        this.splitFunc = HandSplitter::splitDefault;
+        this.split = false;
+    }
+
+    /**
+     * Constructs a Column from rows of a {@linkplain NoteTable}, without making Notes of them: purity, instruments
+     * and features are read off the rows, and the notes themselves (views, with holdovers marked as held) are only
+     * made the first time something needs them, such as the hands or {@linkplain Column#getNotesView}.
+     * <p>
+     * The result is the same as passing the rows' notes, in the same order, to {@linkplain Column#Column(List, Range)}.
+     *
+     * @param rows The rows sounding in {@code range}. In ascending order (as {@linkplain reductor.util.NoteIndex}
+     *     returns them), notes of equal pitch keep their order in the table.
+     */
+    public Column(NoteTable table, int[] rows, Range range) {
 
-        this.LH = new Column(this, false);
-        this.middle = new Column(this, false);
-        this.RH = new Column(this, false);
+        if (table == null) { throw new NullPointerException("table can't be null"); }
+        if (range == null) { throw new NullPointerException("range can't be null"); }
+        this.range = range;
 
-        //this.splitHands(HandSplittingFunctions::defaultHandSplitter);
+        this.notes = null;
+        this.table = table;
+        this.rows = byPitch(table, rows);
+
+        this.isPure = true;
+        this.isSemiPure = true;
+        this.assignPurity(table, this.rows);
+        this.instruments = new BitSet();
+        for (int row : this.rows) {
+            int id = table.getInstrumentId(row);
+            if (id != InstrumentRegistry.NONE) { this.instruments.set(id); }
+        }
+        this.features = ColumnFeatures.of(table, this.rows, this.range);
+
+        this.splitFunc = HandSplitter::splitDefault;
+        this.split = false;
     }
 
     /**
@@ -90,8 +153,12 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      */
     private Column(Column other, boolean createHandColumns) {
 
-        this.range = new Range(other.range);
+        this.range = other.range;
         this.notes =  new Bucket();
+        this.table = null;
+        this.rows = null;
+        this.instruments = new BitSet();
+        this.features = ColumnFeatures.EMPTY;
 
         this.isPure = other.isPure;
         this.isSemiPure = other.isSemiPure;
@@ -101,20 +168,23 @@ public class Column implements Ranged, Noted, Comparable<Column> {
         this.RH = null;
 
         this.splitFunc = null;
+        this.split = true;
     }
 
     /**
-     * Copy constructor.
+     * Copy constructor. The copy's hands are split, with {@code other}'s function, the first time they are asked for.
      */
     public Column(Column other) {
-        this.range = new Range(other.range);
-        this.notes = new Bucket(other.getNotes());
+        this.range = other.range;
+        this.notes = new Bucket(other.notes());
+        this.table = null;
+        this.rows = null;
+        this.instruments = (BitSet) other.instruments.clone();
+        this.features = other.features;
         this.isPure = other.isPure;
         this.isSemiPure = other.isSemiPure;
-        this.LH = new  Column(other.LH, false);
-        this.middle = new Column(other.middle, false);
-        this.RH = new Column(other.RH, false);
         this.splitFunc = other.splitFunc;
+        this.split = other.splitFunc == null;
     }
 
 
@@ -142,23 +212,40 @@ public class Column implements Ranged, Noted, Comparable<Column> {
 
     }
 
+    // As above, for the rows of a Column built from them
+    private void assignPurity(NoteTable table, int[] rows) {
+
+        for (int row : rows) {
+            if (table.getStart(row) != this.range.getLow()  ||  table.getStop(row) != this.range.getHigh()) {
+                this.isPure = false;
+            }
+            if (this.range.getHigh() < table.getStop(row)) {
+                this.isPure = false;
+                this.isSemiPure = false;
+                return;
+            }
+        }
+
+    }
+
+    // A stable sort of rows by pitch (as Bucket sorts notes), on primitives: pitch in the high bits, position below
+    private static int[] byPitch(NoteTable table, int[] rows) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) { keys[i] = (long) table.getPitch(rows[i]) << 32 | i; }
+        Arrays.sort(keys);
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) { sorted[i] = rows[(int) keys[i]]; }
+        return sorted;
+    }
+
     /**
      * Assigns a Note object as being held over if it extends to the left of this Column.
      * Notes in a Column are deep copies, so this does not affect the same held-over Note in its native Column.
      */
     private void markHoldovers() {
-
-        Function<Note, Note> transformHoldovers = note ->
-                note.start() < this.range.getLow()
-                        ? note.setIsHeld(true)
-                        : note;
-
-        List<Note> notes = this.notes.stream()
-                .map(transformHoldovers)
-                .toList();
-
-        this.notes.clear();
-        this.notes.addAll(notes);
+        this.notes.replaceAll(NoteTransform.identity()
+                .where(note -> note.start() < this.range.getLow())
+                .markHeld(true));
     }
 
 
@@ -167,22 +254,111 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      * ================ */
 
 
+    /**
+     * Returns this Column's notes, first making them from its rows if it was built from rows and they have not been
+     * made yet (once; double-checked, as Measure's hand views are).
+     */
+    Bucket notes() {
+        Bucket notes = this.notes;
+        if (notes == null) {
+            synchronized (this) {
+                notes = this.notes;
+                if (notes == null) {
+                    List<Note> views = new ArrayList<>(this.rows.length);
+                    for (int row : this.rows) {
+                        boolean held = this.table.isHeld(row)  ||  this.table.getStart(row) < this.range.getLow();
+                        views.add(this.table.get(row, held));
+                    }
+                    // Already in pitch order, so the Bucket only checks it
+                    notes = new Bucket(views);
+                    this.notes = notes;
+                }
+            }
+        }
+        return notes;
+    }
+
     /**
      * Re-calculates the hand distribution based on the passed function representing another heuristic algorithm.
      */
-    //boolean splitHands(Consumer<Column> splitFunc) {
-    //
-    //    if (LH == null && RH == null && middle == null) { return false; }
-    //
-    //    this.splitFunc = splitFunc;
-    //    this.splitFunc.accept(this);
-    //    return true;
-    //}
+    boolean splitHands(Consumer<Column> splitFunc) {
+
+        // Hand Columns
+        if (this.splitFunc == null) { return false; }
+
+        synchronized (this) {
+            this.splitFunc = splitFunc;
+            this.splitFunc.accept(this);
+            this.split = true;
+        }
+        return true;
+    }
+
+    /**
+     * Runs the pending split, if the hands have not been split (or assigned) yet.
+     */
+    private void ensureSplit() {
+        if (this.split) { return; }
+        synchronized (this) {
+            if (!this.split) {
+                this.splitFunc.accept(this);
+                this.split = true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the hand distribution: {@code hands[i]} is the hand for the i-th note (in pitch order, as in
+     * {@linkplain Column#getNotesView}), with {@linkplain Hand#NONE} meaning the middle (neither hand). Thumbs are
+     * the highest left-hand note and the lowest right-hand note.
+     */
+    synchronized void assignHands(Hand[] hands) {
+
+        Bucket notes = notes();
+        if (hands.length != notes.size()) {
+            throw new IllegalArgumentException("expected " + notes.size() + " hands, got " + hands.length);
+        }
+
+        Column lh = new Column(this, false);
+        Column mid = new Column(this, false);
+        Column rh = new Column(this, false);
+        this.leftThumb = 0;
+        this.rightThumb = 0;
+
+        boolean rightThumbFound = false;
+        for (int i = 0; i < hands.length; i++) {
+            Note note = notes.get(i);
+            switch (hands[i]) {
+                case LEFT -> {
+                    lh.notes().add(note);
+                    this.leftThumb = i;
+                }
+                case RIGHT -> {
+                    rh.notes().add(note);
+                    if (!rightThumbFound) {
+                        this.rightThumb = i;
+                        rightThumbFound = true;
+                    }
+                }
+                case NONE -> mid.notes().add(note);
+            }
+        }
+
+        for (Column hand : List.of(lh, mid, rh)) {
+            hand.instruments.or(InstrumentRegistry.maskOf(hand.notes()));
+            hand.features = ColumnFeatures.of(hand.notes(), hand.range);
+        }
+
+        this.LH = lh;
+        this.middle = mid;
+        this.RH = rh;
+        this.split = true;
+    }
 
     /**
      * Returns the distance between this Column's lowest and highest notes, in terms of pitch.
      */
-    int getOverallSpan() { return this.getHighNote().pitch() - this.getLowNote().pitch(); }
+    int getOverallSpan() { return this.features.span(); }
 
     /**
      * This is pretty meaningless on its own, but, when used as a comparison to the split point,
@@ -191,17 +367,13 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      * is relatively far from the split point, it means that the note density in one of the hands is significantly
      * higher than in the other.
      */
-    int getMedianPitch() { return this.notes.get( this.notes.size() / 2 ).pitch(); }
+    int getMedianPitch() { return this.features.median(); }
 
     /**
      * This is more used to compare the mean pitch *between* other columns to help look for contours in the hand
      * lines over time, and can help identify more probably melody vs. accompaniment lines.
      */
-    int getMeanPitch()  {
-        int sum = 0;
-        for (Note note : this.notes) { sum += note.pitch(); }
-        return sum / this.notes.size();
-    }
+    int getMeanPitch()  { return (int) this.features.mean(); }
 
     /**
      * This returns the imaginary pitch that represents exactly halfway between the two thumbs. If the thumbs cross
@@ -209,7 +381,8 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      */
     int getSplitPointPitch() {
 
-        int rhThumbPitch = this.notes.get(this.rightThumb).pitch();
+        ensureSplit();
+        int rhThumbPitch = notes().get(this.rightThumb).pitch();
         int dist = getSplitSpan();
 
         if (0 <= getSplitSpan()) { return rhThumbPitch - (dist / 2); }
@@ -222,25 +395,44 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      */
     int getSplitSpan() {
 
-        int rhThumbPitch = this.notes.get(this.rightThumb).pitch();
-        int lhThumbPitch = this.notes.get(this.leftThumb).pitch();
+        ensureSplit();
+        int rhThumbPitch = notes().get(this.rightThumb).pitch();
+        int lhThumbPitch = notes().get(this.leftThumb).pitch();
 
         return rhThumbPitch - lhThumbPitch;
     }
 
     /**
-     * Inserts a Note, in order, to this Column.
+     * Inserts a Note, in order, to this Column. The hands are re-split (with the same function) when next asked for.
      */
-    void add(Note other) {
-        int index = Collections.binarySearch(this.notes, other);
+    synchronized void add(Note other) {
+        Bucket notes = notes();
+        int index = Collections.binarySearch(notes, other);
         if (index < 0) { index = -(index + 1); }
-        this.notes.add(index, other);
+        notes.add(index, other);
+        if (other.getInstrumentId() != InstrumentRegistry.NONE) { this.instruments.set(other.getInstrumentId()); }
+        this.features = ColumnFeatures.of(notes, this.range);
+        invalidateSplit();
     }
 
     /**
-     * Removes and returns a Note from this Column.
+     * Removes and returns a Note from this Column. The hands are re-split (with the same function) when next asked
+     * for.
      */
-    Note remove(int index) { return this.notes.remove(index); }
+    synchronized Note remove(int index) {
+        Bucket notes = notes();
+        Note removed = notes.remove(index);
+        this.instruments.clear();
+        this.instruments.or(InstrumentRegistry.maskOf(notes));
+        this.features = ColumnFeatures.of(notes, this.range);
+        invalidateSplit();
+        return removed;
+    }
+
+    // The thumbs index into notes, and the hands hold copies of them, so both are stale once notes change
+    private void invalidateSplit() {
+        if (this.splitFunc != null) { this.split = false; }
+    }
 
 
     /* =======
@@ -248,15 +440,96 @@ public class Column implements Ranged, Noted, Comparable<Column> {
      * ======= */
 
 
-    public int size() { return this.notes.size(); }
-    boolean isEmpty() { return this.notes.isEmpty(); }
+    // Counting doesn't need the notes made
+    public int size() {
+        Bucket notes = this.notes;
+        return notes != null ? notes.size() : this.rows.length;
+    }
 
-    public Column getLeftHand() { return LH; }
-    public Column getMiddle() { return middle; }
-    public Column getRightHand() { return RH; }
+    /**
+     * Returns this Column's pitch features (span, median, mean, etc.), computed once rather than on each call.
+     */
+    public ColumnFeatures getFeatures() { return this.features; }
+    boolean isEmpty() { return size() == 0; }
 
-    Note getLowNote() { return this.notes.getFirst(); }
-    Note getHighNote() { return this.notes.getLast(); }
+    public Column getLeftHand() {
+        ensureSplit();
+        return LH;
+    }
+    public Column getMiddle() {
+        ensureSplit();
+        return middle;
+    }
+    public Column getRightHand() {
+        ensureSplit();
+        return RH;
+    }
+
+    /**
+     * Returns true if any note in this Column is from the passed instrument (see {@linkplain InstrumentRegistry}).
+     */
+    public boolean hasInstrument(int instrumentId) {
+        return instrumentId != InstrumentRegistry.NONE  &&  this.instruments.get(instrumentId);
+    }
+
+    /**
+     * Returns a copy of the set of {@linkplain InstrumentRegistry} ids of this Column's notes.
+     */
+    public BitSet getInstrumentMask() { return (BitSet) this.instruments.clone(); }
+
+    // For containers building their own mask, without the copy
+    void orInstrumentsInto(BitSet mask) { mask.or(this.instruments); }
+
+    /*
+     For Measures, which leave out notes that end before they start (see Measure's constructor): the instruments, and
+     number, of only the notes still sounding at tick. Read off the rows if the notes have not been made.
+    */
+
+    void orInstrumentsSoundingFrom(int tick, BitSet mask) {
+        Bucket notes = this.notes;
+        if (notes != null) {
+            for (Note note : notes) {
+                if (tick <= note.stop()  &&  note.getInstrumentId() != InstrumentRegistry.NONE) {
+                    mask.set(note.getInstrumentId());
+                }
+            }
+            return;
+        }
+        for (int row : this.rows) {
+            int id = this.table.getInstrumentId(row);
+            if (tick <= this.table.getStop(row)  &&  id != InstrumentRegistry.NONE) { mask.set(id); }
+        }
+    }
+
+    int countSoundingFrom(int tick) {
+        int count = 0;
+        Bucket notes = this.notes;
+        if (notes != null) {
+            for (Note note : notes) {
+                if (tick <= note.stop()) { count++; }
+            }
+            return count;
+        }
+        for (int row : this.rows) {
+            if (tick <= this.table.getStop(row)) { count++; }
+        }
+        return count;
+    }
+
+    /**
+     * Returns this Column's notes from the passed instrument.
+     */
+    public ArrayList<Note> getNotes(int instrumentId) {
+        ArrayList<Note> notes = new ArrayList<>();
+        if (!hasInstrument(instrumentId)) { return notes; }
+        for (Note note : notes()) {
+            if (note.getInstrumentId() == instrumentId) { notes.add(note); }
+        }
+        return notes;
+    }
+
+    Note getLowNote() { return notes().getFirst(); }
+    Note getHighNote() { return notes().getLast(); }
 
     boolean isPure() { return this.isPure; }
     boolean isSemiPure() { return this.isSemiPure; }
@@ -264,13 +537,13 @@ public class Column implements Ranged, Noted, Comparable<Column> {
     /**
      * Returns false if there are more notes in this Column than can be realistically played by two hands.
      */
-    public boolean isTwoHanded() { return middle.isEmpty(); }
+    public boolean isTwoHanded() { return getMiddle().isEmpty(); }
     boolean isTwoHandedForRachmaninoff() { return true; }
 
     /**
      * See {@linkplain Column#range}.
      */
-    Range getActualRange() { return RangeUtil.concatenate(this.notes); }
+    Range getActualRange() { return RangeUtil.concatenate(notes()); }
 
 
     /* =========
@@ -279,10 +552,13 @@ public class Column implements Ranged, Noted, Comparable<Column> {
 
 
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
+
+    @Override
+    public ArrayList<Note> getNotes() { return new ArrayList<>(notes()); }
 
     @Override
-    public ArrayList<Note> getNotes() { return new ArrayList<>(this.notes); }
+    public List<Note> getNotesView() { return notes().getNotesView(); }
 
     @Override
     public int compareTo(Column other) { return this.range.compareTo(other.range); }
@@ -290,15 +566,16 @@ public class Column implements Ranged, Noted, Comparable<Column> {
     @Override
     public String toString() {
 
-        String lh = LH.notes.stream()
+        ensureSplit();
+        String lh = LH.notes().stream()
                 .map(Note::toString)
                 .collect(Collectors.joining(", "));
 
-        String m = middle.notes.stream()
+        String m = middle.notes().stream()
                 .map(Note::toString)
                 .collect(Collectors.joining(", "));
 
-        String rh = RH.notes.stream()
+        String rh = RH.notes().stream()
                 .map(Note::toString)
                 .collect(Collectors.joining(", "));
 
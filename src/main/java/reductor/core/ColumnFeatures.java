@@ -0,0 +1,102 @@
+package reductor.core;
+
+
+import java.util.List;
+
+
+/**
+ * The pitch features of one Column that reduction heuristics look at, computed in a single pass over its notes.
+ * <p>
+ * For an empty Column, count and holdovers are 0, the pitch features are -1, and the mask is 0.
+ *
+ * @param low The lowest pitch.
+ * @param high The highest pitch.
+ * @param span {@code high - low}.
+ * @param median The pitch of the upper-median note.
+ * @param mean The mean pitch.
+ * @param pitchClassMask Bit {@code i} is set if pitch class {@code i} (C = 0, C# = 1, ...) sounds.
+ * @param count The number of notes.
+ * @param holdovers The number of notes held over from before the Column's range.
+ */
+public record ColumnFeatures(
+        int low,
+        int high,
+        int span,
+        int median,
+        double mean,
+        int pitchClassMask,
+        int count,
+        int holdovers
+) {
+
+    public static final ColumnFeatures EMPTY = new ColumnFeatures(-1, -1, -1, -1, -1, 0, 0, 0);
+
+    /**
+     * @param notes Notes in pitch order (as a Column holds them).
+     * @param range The range of the Column; notes starting before it are holdovers.
+     */
+    public static ColumnFeatures of(List<Note> notes, Range range) {
+
+        if (notes.isEmpty()) { return EMPTY; }
+
+        long sum = 0;
+        int mask = 0;
+        int holdovers = 0;
+        for (Note note : notes) {
+            int pitch = note.pitch();
+            sum += pitch;
+            mask |= 1 << (pitch % 12);
+            if (note.start() < range.getLow()) { holdovers++; }
+        }
+
+        int low = notes.getFirst().pitch();
+        int high = notes.getLast().pitch();
+        return new ColumnFeatures(
+                low,
+                high,
+                high - low,
+                notes.get(notes.size() / 2).pitch(),
+                sum / (double) notes.size(),
+                mask,
+                notes.size(),
+                holdovers
+        );
+    }
+
+    /**
+     * As {@link #of(List, Range)}, for a Column that has not made Notes of its rows yet.
+     *
+     * @param rows Rows of {@code table}, in pitch order.
+     */
+    static ColumnFeatures of(NoteTable table, int[] rows, Range range) {
+
+        if (rows.length == 0) { return EMPTY; }
+
+        long sum = 0;
+        int mask = 0;
+        int holdovers = 0;
+        for (int row : rows) {
+            int pitch = table.getPitch(row);
+            sum += pitch;
+            mask |= 1 << (pitch % 12);
+            if (table.getStart(row) < range.getLow()) { holdovers++; }
+        }
+
+        int low = table.getPitch(rows[0]);
+        int high = table.getPitch(rows[rows.length - 1]);
+        return new ColumnFeatures(
+                low,
+                high,
+                high - low,
+                table.getPitch(rows[rows.length / 2]),
+                sum / (double) rows.length,
+                mask,
+                rows.length,
+                holdovers
+        );
+    }
+
+    /** Returns the number of distinct pitch classes sounding. */
+    public int pitchClassCount() { return Integer.bitCount(this.pitchClassMask); }
+
+}
@@ -0,0 +1,254 @@
+package reductor.core;
+
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The hand-splitting stage: applies one strategy to every Column of a Piece (or of any ordered list of Columns),
+ * deciding which of each Column's notes go to the left hand, the right hand, or neither (the "middle").
+ * <p>
+ * A <em>local</em> strategy sees one Column at a time. A <em>windowed</em> strategy sees the Columns within
+ * {@code radius} of the one being split, for heuristics that look at neighbouring Columns (voice leading, register
+ * continuity, etc.). Either way, splitting a Column only writes that Column's hands, so Columns are independent and
+ * are split in parallel when a pool is given. Windowed strategies must therefore only read their neighbours' notes,
+ * not their hands.
+ * <p>
+ * Each splitter accumulates its own {@link Timing} over every run, so strategies can be compared.
+ */
+public final class HandSplitter {
+
+    /** Splits one Column. */
+    @FunctionalInterface
+    public interface Strategy {
+        /**
+         * @param notes The Column's notes, in pitch order.
+         * @return One Hand per note ({@link Hand#NONE} for the middle).
+         */
+        Hand[] split(List<Note> notes);
+    }
+
+    /** Splits one Column, looking at its neighbours. */
+    @FunctionalInterface
+    public interface WindowedStrategy {
+        /**
+         * @param window Consecutive Columns, in order; at most {@code radius} on either side of the one to split.
+         * @param index The index, in {@code window}, of the Column to split.
+         * @return One Hand per note of that Column, in pitch order ({@link Hand#NONE} for the middle).
+         */
+        Hand[] split(List<Column> window, int index);
+    }
+
+    /**
+     * @param strategy The splitter's name.
+     * @param runs Calls to {@link #split}.
+     * @param columns Columns split, over all runs.
+     * @param wallNanos Elapsed time, over all runs.
+     * @param workNanos Time spent in the strategy itself, summed over every thread.
+     */
+    public record Timing(String strategy, long runs, long columns, long wallNanos, long workNanos) {
+        public double nanosPerColumn() { return this.columns == 0 ? 0 : this.wallNanos / (double) this.columns; }
+    }
+
+    /** Columns (or windows) at or below this count are split sequentially, even when a pool is given. */
+    static final int PARALLEL_THRESHOLD = 256;
+
+    // The default split, in semitones and notes per hand; middle C and above goes to the right hand when alone
+    static final int SPAN_MAX = 14;
+    static final int NOTES_MAX = 6;
+    static final int MIDDLE_C = 60;
+
+    /** The heuristic every Column is split with unless re-split; see {@link #splitDefault}. */
+    public static final HandSplitter DEFAULT = local("default", HandSplitter::defaultSplit);
+
+    private final String name;
+    private final Strategy strategy;
+    private final WindowedStrategy windowedStrategy;
+    private final int radius;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong columns = new AtomicLong();
+    private final AtomicLong wallNanos = new AtomicLong();
+    private final AtomicLong workNanos = new AtomicLong();
+
+
+    private HandSplitter(String name, Strategy strategy, WindowedStrategy windowedStrategy, int radius) {
+        if (name == null) { throw new NullPointerException("name can't be null"); }
+        if (radius < 0) { throw new IllegalArgumentException("radius can't be negative"); }
+        this.name = name;
+        this.strategy = strategy;
+        this.windowedStrategy = windowedStrategy;
+        this.radius = radius;
+    }
+
+    public static HandSplitter local(String name, Strategy strategy) {
+        if (strategy == null) { throw new NullPointerException("strategy can't be null"); }
+        return new HandSplitter(name, strategy, null, 0);
+    }
+
+    public static HandSplitter windowed(String name, int radius, WindowedStrategy strategy) {
+        if (strategy == null) { throw new NullPointerException("strategy can't be null"); }
+        return new HandSplitter(name, null, strategy, radius);
+    }
+
+
+    //region split
+
+    /**
+     * Re-splits every Column of {@code piece}, then drops its Measures' cached hand views.
+     *
+     * @param pool The pool to split in, or null to split on the calling thread.
+     */
+    public void split(Piece piece, ForkJoinPool pool) {
+        split(piece.getColumns(), pool);
+        for (Measure measure : piece.getMeasures()) { measure.invalidateHandViews(); }
+    }
+
+    public void split(Piece piece) {
+        split(piece, null);
+    }
+
+    /**
+     * Re-splits every Column in {@code columns}, which windowed strategies take to be in order. Measures holding
+     * these Columns are not told; see {@link Measure#invalidateHandViews()}.
+     *
+     * @param pool The pool to split in, or null to split on the calling thread.
+     */
+    public void split(List<Column> columns, ForkJoinPool pool) {
+        long start = System.nanoTime();
+
+        Split split = new Split(columns, 0, columns.size());
+        if (pool != null  &&  PARALLEL_THRESHOLD < columns.size()) {
+            pool.invoke(split);
+        } else {
+            split.compute();
+        }
+
+        this.runs.incrementAndGet();
+        this.columns.addAndGet(columns.size());
+        this.wallNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    // The split function asks the strategy again each time it runs, so a Column whose notes change re-splits itself
+    private void split(List<Column> columns, int index) {
+        columns.get(index).splitHands(column -> column.assignHands(hands(columns, index)));
+    }
+
+    private Hand[] hands(List<Column> columns, int index) {
+        long start = System.nanoTime();
+        Hand[] hands;
+        if (this.strategy != null) {
+            hands = this.strategy.split(columns.get(index).getNotesView());
+        } else {
+            int first = Math.max(0, index - this.radius);
+            int last = Math.min(columns.size(), index + this.radius + 1);
+            hands = this.windowedStrategy.split(columns.subList(first, last), index - first);
+        }
+        this.workNanos.addAndGet(System.nanoTime() - start);
+        return hands;
+    }
+
+    // Halves [first, last) until it is small enough to split sequentially
+    private class Split extends RecursiveAction {
+
+        private final List<Column> columns;
+        private final int first;
+        private final int last;
+
+        Split(List<Column> columns, int first, int last) {
+            this.columns = columns;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.last - this.first <= PARALLEL_THRESHOLD) {
+                for (int i = this.first; i < this.last; i++) { split(this.columns, i); }
+                return;
+            }
+            int middle = (this.first + this.last) >>> 1;
+            invokeAll(new Split(this.columns, this.first, middle), new Split(this.columns, middle, this.last));
+        }
+    }
+
+    //endregion
+
+
+    //region getters
+
+    public String getName() { return this.name; }
+
+    public boolean isWindowed() { return this.windowedStrategy != null; }
+
+    public int getRadius() { return this.radius; }
+
+    /** Returns the totals of every run so far. */
+    public Timing getTiming() {
+        return new Timing(this.name, this.runs.get(), this.columns.get(), this.wallNanos.get(), this.workNanos.get());
+    }
+
+    //endregion
+
+
+    //region default strategy
+
+    /**
+     * Splits a Column with the default heuristic (without touching {@link #DEFAULT}'s timing); used by a Column the
+     * first time its hands are asked for.
+     */
+    public static void splitDefault(Column column) {
+        column.assignHands(defaultSplit(column.getNotesView()));
+    }
+
+    /*
+     Each hand takes notes from its outside edge inwards, anchored on its outermost note, for as long as it has
+     fewer than NOTES_MAX notes and the next note is within SPAN_MAX of the anchor. The right hand goes first,
+     unless every note is below middle C, in which case the left hand does. Whatever neither hand can reach is
+     the middle.
+    */
+    private static Hand[] defaultSplit(List<Note> notes) {
+
+        Hand[] hands = new Hand[notes.size()];
+        Arrays.fill(hands, Hand.NONE);
+        if (notes.isEmpty()) { return hands; }
+
+        if (notes.getLast().pitch() < MIDDLE_C) {
+            takeFromBottom(notes, hands);
+            takeFromTop(notes, hands);
+        } else {
+            takeFromTop(notes, hands);
+            takeFromBottom(notes, hands);
+        }
+
+        return hands;
+    }
+
+    private static void takeFromBottom(List<Note> notes, Hand[] hands) {
+        int anchor = notes.getFirst().pitch();
+        int taken = 0;
+        for (int i = 0; i < notes.size()  &&  hands[i] == Hand.NONE; i++) {
+            if (taken == NOTES_MAX  ||  SPAN_MAX < notes.get(i).pitch() - anchor) { return; }
+            hands[i] = Hand.LEFT;
+            taken++;
+        }
+    }
+
+    private static void takeFromTop(List<Note> notes, Hand[] hands) {
+        int anchor = notes.getLast().pitch();
+        int taken = 0;
+        for (int i = notes.size() - 1; 0 <= i  &&  hands[i] == Hand.NONE; i--) {
+            if (taken == NOTES_MAX  ||  SPAN_MAX < anchor - notes.get(i).pitch()) { return; }
+            hands[i] = Hand.RIGHT;
+            taken++;
+        }
+    }
+
+    //endregion
+
+
+}
@@ -0,0 +1,90 @@
+package reductor.core;
+
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Maps instrument names (MIDI track names, General MIDI program names, etc.) to small, dense integer ids.
+ * <p>
+ * Every {@link Note} carries the id of its source instrument, and {@link Column}, {@link Measure} and {@link Piece}
+ * keep a {@link BitSet} of the ids they contain, so "notes from the violins"-type filters are a bit test per
+ * container rather than a string comparison per note.
+ * <p>
+ * There is one registry for the whole program (as with {@link Pitch#of}), so ids from different pieces mean the same
+ * instrument. Ids are handed out in order of first registration and never change. {@code null} and empty names
+ * (notes without an instrument) map to {@link #NONE}.
+ * <p>
+ * The registry only grows: names are never removed, so it holds every instrument seen since the program started,
+ * not just those of the pieces still loaded. Each name costs one map entry and one array slot.
+ */
+public final class InstrumentRegistry {
+
+    /** The id of notes without an instrument; never set in masks. */
+    public static final int NONE = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    // Indexed by id; replaced (never written to) when it grows, so readers never need the lock
+    private static volatile String[] names = new String[0];
+
+    private InstrumentRegistry() {}
+
+
+    /**
+     * @return The id of {@code name}, registering it if it is new.
+     */
+    public static int idOf(String name) {
+        if (name == null  ||  name.isEmpty()) { return NONE; }
+        Integer id = IDS.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * @return The id of {@code name}, or {@link #NONE} if it has never been registered.
+     */
+    public static int find(String name) {
+        if (name == null  ||  name.isEmpty()) { return NONE; }
+        return IDS.getOrDefault(name, NONE);
+    }
+
+    public static String nameOf(int id) {
+        if (id == NONE) { return null; }
+        String[] names = InstrumentRegistry.names;
+        if (id < 0  ||  names.length <= id) { throw new IllegalArgumentException("no instrument with id " + id); }
+        return names[id];
+    }
+
+    public static int size() { return names.length; }
+
+    /** Returns every registered name, indexed by id. */
+    public static List<String> getNames() { return List.of(names); }
+
+    /**
+     * @return A mask with the instrument id of each note set.
+     */
+    public static BitSet maskOf(Iterable<Note> notes) {
+        BitSet mask = new BitSet();
+        for (Note note : notes) {
+            if (note.getInstrumentId() != NONE) { mask.set(note.getInstrumentId()); }
+        }
+        return mask;
+    }
+
+    private static synchronized int register(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) { return id; }
+
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = name;
+        // Publish the name before the id, so anyone who can see the id can also look it up
+        names = grown;
+        IDS.put(name, grown.length - 1);
+        return grown.length - 1;
+    }
+
+
+}
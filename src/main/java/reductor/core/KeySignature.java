@@ -26,13 +26,14 @@ public class KeySignature implements Ranged {
             throw new IllegalArgumentException("invalid mode value: " + mode);
         }
 
-        this.range = new Range(range);
+        if (range == null) { throw new NullPointerException("range can't be null"); }
+        this.range = range;
         this.mode = mode;
         this.accidentals = accidentals;
     }
 
     public KeySignature(KeySignature other) {
-        this.range = new Range(other.range);
+        this.range = other.range;
         this.mode = other.mode;
         this.accidentals = other.accidentals;
     }
@@ -102,7 +103,7 @@ public class KeySignature implements Ranged {
         String keyString = keySignature.isMajor() ?
                 keysMajorItoS.get(keySignature.accidentals()) :
                 keysMinorItoS.get(keySignature.accidentals());
-        return new Pitch(keyString + "-1").value();
+        return Pitch.of(keyString + "-1").value();
     }
 
     public int mode() { return mode; }
@@ -119,7 +120,7 @@ public class KeySignature implements Ranged {
     public boolean isFlat() { return !isSharp(); }
 
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
 
     @Override
     public String toString() {
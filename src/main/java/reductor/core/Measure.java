@@ -1,12 +1,16 @@
 package reductor.core;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
 public class Measure implements Ranged, Noted {
 
-    private final Bucket notes;
+    // Merged from the Columns' notes on first use (see notes()), so building a Measure makes no Notes
+    private volatile Bucket notes;
+    // InstrumentRegistry ids of this Measure's notes
+    private final BitSet instruments;
     private final List<Column> columns;
 
     private final Range range;
@@ -57,15 +61,9 @@ public class Measure implements Ranged, Noted {
           I've gone with the 2nd approach.
          */
 
-        ArrayList<Note> notes = new ArrayList<>();
-        for (Column col : columns) {
-            for (Note note : col.getNotes()) {
-                if (note.stop() < this.range.getLow()) { continue; }
-                notes.add(note);
-            }
-        }
-
-        this.notes = new Bucket(notes);
+        this.notes = null;
+        this.instruments = new BitSet();
+        for (Column col : this.columns) { col.orInstrumentsSoundingFrom(this.range.getLow(), this.instruments); }
 
         this.timeSig = timeSig;
         this.keySig = keySig;
@@ -80,6 +78,7 @@ public class Measure implements Ranged, Noted {
 
     Measure(Measure other) {
         this.notes = new Bucket(other.getNotes());
+        this.instruments = InstrumentRegistry.maskOf(this.notes);
         this.columns = new ArrayList<>(other.columns);
         this.columns.sort(null);
         this.number = other.number;
@@ -93,9 +92,37 @@ public class Measure implements Ranged, Noted {
         this.comp = other.comp;
     }
 
-    public int size() { return this.notes.size(); }
+    /**
+     * Returns this Measure's notes, merging them from its Columns' notes the first time (double-checked, as the hand
+     * views below are).
+     */
+    private Bucket notes() {
+        Bucket notes = this.notes;
+        if (notes == null) {
+            synchronized (this) {
+                notes = this.notes;
+                if (notes == null) {
+                    // Each Column's notes are already sorted, so this is a merge rather than a sort
+                    List<Bucket> columnNotes = new ArrayList<>(this.columns.size());
+                    for (Column col : this.columns) { columnNotes.add(col.notes()); }
+                    notes = Bucket.merge(columnNotes, note -> this.range.getLow() <= note.stop());
+                    this.notes = notes;
+                }
+            }
+        }
+        return notes;
+    }
+
+    // Counting doesn't need the notes merged
+    public int size() {
+        Bucket notes = this.notes;
+        if (notes != null) { return notes.size(); }
+        int size = 0;
+        for (Column col : this.columns) { size += col.countSoundingFrom(this.range.getLow()); }
+        return size;
+    }
 
-    public boolean isEmpty() { return this.notes.isEmpty(); }
+    public boolean isEmpty() { return size() == 0; }
 
     public long length() { return this.getRange().length(); }
 
@@ -129,8 +156,26 @@ public class Measure implements Ranged, Noted {
 
     public Column getColumn(int index) { return this.columns.get(index); }
 
+    /** Returns true if any note in this Measure is from the passed instrument (see {@link InstrumentRegistry}). */
+    public boolean hasInstrument(int instrumentId) {
+        return instrumentId != InstrumentRegistry.NONE  &&  this.instruments.get(instrumentId);
+    }
+
+    /** Returns a copy of the set of {@link InstrumentRegistry} ids of this Measure's notes. */
+    public BitSet getInstrumentMask() { return (BitSet) this.instruments.clone(); }
+
+    /** Returns this Measure's notes from the passed instrument. */
+    public ArrayList<Note> getNotes(int instrumentId) {
+        ArrayList<Note> notes = new ArrayList<>();
+        if (!hasInstrument(instrumentId)) { return notes; }
+        for (Note note : notes()) {
+            if (note.getInstrumentId() == instrumentId) { notes.add(note); }
+        }
+        return notes;
+    }
+
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
 
     @Override
     public ArrayList<Note> getNotes() {
@@ -142,6 +187,9 @@ public class Measure implements Ranged, Noted {
         return new ArrayList<>();
     }
 
+    @Override
+    public List<Note> getNotesView() { return notes().getNotesView(); }
+
     @Override
     public String toString() {
         String number = this.number != null ? this.number + "" : "-1";
@@ -152,66 +200,84 @@ public class Measure implements Ranged, Noted {
     Comparator<Note> comp = new Comparator<>() {
         @Override
         public int compare(Note note, Note other) {
-            if (note.getPitch() != other.getPitch()) { return Integer.compare(note.pitch(),
+            if (note.pitch() != other.pitch()) { return Integer.compare(note.pitch(),
                     other.pitch()); }
             return note.getRange().compareTo(other.getRange());
         }
     };
 
-    public ArrayList<Note> getNotesProper() {
-
-        Set<Note> set = new TreeSet<>(comp);
-        set.addAll(this.notes);
-
-        return new ArrayList<>(set);
-    }
-
-    public ArrayList<Note> getRhNotes() {
-
-        Set<Note> set = new TreeSet<>(comp);
-        for (Column c : this.columns) {
-            for (Note note : c.getRightHand().notes) {
-                if (!(note.stop() < this.range.getLow())) {
-                    set.add(note);
+    /*
+     * The sorted (by pitch, then range), de-duplicated views below are built together on first use and kept until
+     * invalidateHandViews(). The arrays are never written to after construction, and are only handed out wrapped as
+     * unmodifiable Lists, so repeated calls are O(1) and safe to share between threads.
+     */
+    private record HandViews(Note[] proper, Note[] rightHand, Note[] middle, Note[] leftHand) {}
+
+    private volatile HandViews handViews;
+
+    private HandViews handViews() {
+        HandViews views = this.handViews;
+        if (views == null) {
+            synchronized (this) {
+                views = this.handViews;
+                if (views == null) {
+                    views = new HandViews(
+                            sortedDistinct(notes(), null),
+                            sortedDistinct(handNotes(Column::getRightHand), Hand.RIGHT),
+                            sortedDistinct(handNotes(Column::getMiddle), Hand.NONE),
+                            sortedDistinct(handNotes(Column::getLeftHand), Hand.LEFT)
+                    );
+                    this.handViews = views;
                 }
             }
         }
-
-        for (Note note : set) { note.setHand(Hand.RIGHT); }
-
-        return new ArrayList<>(set);
+        return views;
     }
 
-    public ArrayList<Note> getMiddleNotes() {
+    /**
+     * Drops the cached note views, so that the next call to any of them rebuilds it. To be called whenever the hand
+     * split of any of this Measure's Columns changes.
+     */
+    public void invalidateHandViews() {
+        synchronized (this) { this.handViews = null; }
+    }
 
-        Set<Note> set = new TreeSet<>(comp);
+    // This Measure's share of each Column's hand (the same held-over cutoff as the Measure's own notes)
+    private List<Note> handNotes(Function<Column, Column> hand) {
+        List<Note> notes = new ArrayList<>();
         for (Column c : this.columns) {
-            for (Note note : c.getMiddle().notes) {
-                if (!(note.stop() < this.range.getLow())) {
-                    set.add(note);
-                }
+            for (Note note : hand.apply(c).notes()) {
+                if (!(note.stop() < this.range.getLow())) { notes.add(note); }
             }
         }
+        return notes;
+    }
 
-        for (Note note : set) { note.setHand(Hand.NONE); }
-
-        return new ArrayList<>(set);
+    // Sorts by comp and keeps the first of each run of equal notes (as adding to a TreeSet would), assigning a hand
+    private Note[] sortedDistinct(List<Note> notes, Hand hand) {
+        List<Note> sorted = new ArrayList<>(notes);
+        sorted.sort(comp);
+        NoteTransform toHand = hand == null ? NoteTransform.identity() : NoteTransform.identity().hand(hand);
+        List<Note> distinct = new ArrayList<>(sorted.size());
+        Note previous = null;
+        for (Note note : sorted) {
+            if (previous != null  &&  comp.compare(previous, note) == 0) { continue; }
+            previous = note;
+            distinct.add(toHand.apply(note));
+        }
+        return distinct.toArray(new Note[0]);
     }
 
-    public ArrayList<Note> getLhNotes() {
+    public List<Note> getNotesProper() { return view(handViews().proper()); }
 
-        Set<Note> set = new TreeSet<>(comp);
-        for (Column c : this.columns) {
-            for (Note note : c.getLeftHand().notes) {
-                if (!(note.stop() < this.range.getLow())) {
-                    set.add(note);
-                }
-            }
-        }
+    public List<Note> getRhNotes() { return view(handViews().rightHand()); }
+
+    public List<Note> getMiddleNotes() { return view(handViews().middle()); }
 
-        for (Note note : set) { note.setHand(Hand.LEFT); }
+    public List<Note> getLhNotes() { return view(handViews().leftHand()); }
 
-        return new ArrayList<>(set);
+    private static List<Note> view(Note[] notes) {
+        return Collections.unmodifiableList(Arrays.asList(notes));
     }
 
 
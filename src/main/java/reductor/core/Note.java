@@ -17,6 +17,8 @@ public class Note implements Ranged, Noted, Comparable<Note> {
     private final Pitch pitch;
 
     private final String sourceInstrument;
+    // See InstrumentRegistry
+    private final int instrumentId;
 
     private final boolean isHeld;
 
@@ -30,10 +32,45 @@ public class Note implements Ranged, Noted, Comparable<Note> {
             boolean isHeld,
             Hand hand
     ) {
-        this.range = new Range(range);
+        if (range == null) { throw new NullPointerException("range can't be null"); }
+        this.range = range;
         this.rhythm = new Rhythm(rhythm);
-        this.pitch = new Pitch(pitch);
+        if (pitch == null) { throw new NullPointerException("pitch can't be null"); }
+        this.pitch = pitch;
         this.sourceInstrument = instrument;
+        this.instrumentId = InstrumentRegistry.idOf(instrument);
+        this.isHeld = isHeld;
+        this.hand = hand;
+    }
+
+    /*
+     * Used by NoteTable for its views: takes the (new) Rhythm as is, and the instrument's already-looked-up id.
+     */
+    Note(Range range, Rhythm rhythm, Pitch pitch, String instrument, int instrumentId, boolean isHeld, Hand hand) {
+        this.range = range;
+        this.rhythm = rhythm;
+        this.pitch = pitch;
+        this.sourceInstrument = instrument;
+        this.instrumentId = instrumentId;
+        this.isHeld = isHeld;
+        this.hand = hand;
+    }
+
+    /*
+     * Used by setters and NoteTransform: shares the passed (immutable) components and the rest of base's, rather than
+     * copying them. base's Rhythm is kept unless the new range has a different duration, in which case it is
+     * reclassified at the same resolution.
+     */
+    Note(Note base, Range range, Pitch pitch, boolean isHeld, Hand hand) {
+        if (range == null) { throw new NullPointerException("range can't be null"); }
+        if (pitch == null) { throw new NullPointerException("pitch can't be null"); }
+        this.range = range;
+        this.rhythm = range.length() == base.range.length()
+                ? base.rhythm
+                : Rhythm.fromRange(range, base.rhythm.getResolution());
+        this.pitch = pitch;
+        this.sourceInstrument = base.sourceInstrument;
+        this.instrumentId = base.instrumentId;
         this.isHeld = isHeld;
         this.hand = hand;
     }
@@ -47,10 +84,10 @@ public class Note implements Ranged, Noted, Comparable<Note> {
     }
 
     @Override public Range getRange() {
-        return new Range(this.range);
+        return this.range;
     }
     public Note setRange(Range range) {
-        return NoteBuilder.from(this).range(range).build();
+        return new Note(this, range, this.pitch, this.isHeld, this.hand);
     }
 
     public Rhythm getRhythm() {
@@ -61,28 +98,33 @@ public class Note implements Ranged, Noted, Comparable<Note> {
     }
 
     public Pitch getPitch() {
-        return new Pitch(this.pitch);
+        return this.pitch;
     }
     public Note setPitch(int pitch) {
-        return NoteBuilder.from(this).pitch(pitch).build();
+        return new Note(this, this.range, Pitch.of(pitch), this.isHeld, this.hand);
     }
 
     public boolean getIsHeld() {
         return isHeld;
     }
     public Note setIsHeld(boolean isHeld) {
-        return NoteBuilder.from(this).isHeld(isHeld).build();
+        return new Note(this, this.range, this.pitch, isHeld, this.hand);
     }
 
     public String getSourceInstrument() {
         return this.sourceInstrument;
     }
 
+    /** Returns the {@link InstrumentRegistry} id of this note's source instrument. */
+    public int getInstrumentId() {
+        return this.instrumentId;
+    }
+
     public Hand getHand() {
         return this.hand;
     }
     public Note setHand(Hand hand) {
-        return NoteBuilder.from(this).hand(hand).build();
+        return new Note(this, this.range, this.pitch, this.isHeld, hand == null ? Hand.NONE : hand);
     }
 
 
@@ -0,0 +1,223 @@
+package reductor.core;
+
+
+import reductor.app.Application;
+import reductor.util.PitchUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A columnar (structure-of-arrays) store of notes: one primitive array per field instead of one object graph per
+ * note.
+ * <p>
+ * A {@link Note} costs a Note, a Range and a Rhythm object (Pitch and instrument String are shared), roughly
+ * 100+ bytes; a row here is 4 + 4 + 2 + 2 + 1 = 13 bytes. Note objects are only created on request, as
+ * views ({@link #get}, {@link #getNotes}), so existing Noted/Ranged callers keep working.
+ * <p>
+ * Pitches and instrument names are stored once per table and indexed from each row, so a view has the same Pitch
+ * (spelling included) and instrument as the note its row came from. Its Rhythm is derived from its range at the
+ * table's resolution, exactly as {@link reductor.core.builders.NoteBuilder#build()} derives it. Rows keep the order
+ * of the list the table was built from.
+ * <p>
+ * A {@link Piece} keeps its notes in one of these, in range order, with a {@link reductor.util.NoteIndex} over it.
+ */
+public class NoteTable implements Noted {
+
+    private static final int HELD = 1;
+    // Hand is stored as (ordinal + 1) in these bits, so that 0 can mean "no hand" (null)
+    private static final int HAND_SHIFT = 1;
+    private static final int HAND_MASK = 0b11 << HAND_SHIFT;
+    private static final Hand[] HANDS = Hand.values();
+
+    private final int[] starts;
+    private final int[] stops;
+    // Indexes into pitches below
+    private final short[] pitchIndexes;
+    // Indexes into instruments below; local to this table, unlike InstrumentRegistry ids
+    private final short[] instrumentIndexes;
+    private final byte[] flags;
+
+    // Each distinct Pitch (by spelling) is stored once
+    private final Pitch[] pitches;
+    // Instrument names, indexed by instrument index; each distinct name is stored once
+    private final String[] instruments;
+    // The InstrumentRegistry id of each of the names above
+    private final int[] instrumentIds;
+
+    // Ticks per quarter, which views' Rhythms are classified against
+    private final int resolution;
+
+
+    /**
+     * @param resolution Ticks per quarter of the notes' piece.
+     */
+    public NoteTable(List<Note> notes, int resolution) {
+
+        if (notes == null) { throw new NullPointerException(""); }
+        if (resolution < 1) { throw new IllegalArgumentException("resolution must be positive"); }
+        this.resolution = resolution;
+
+        int size = notes.size();
+        this.starts = new int[size];
+        this.stops = new int[size];
+        this.pitchIndexes = new short[size];
+        this.instrumentIndexes = new short[size];
+        this.flags = new byte[size];
+
+        Map<String, Short> pitchIndexes = new HashMap<>();
+        List<Pitch> pitchPool = new ArrayList<>();
+        Map<String, Short> indexes = new HashMap<>();
+        List<String> pool = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            Note note = notes.get(i);
+
+            this.starts[i] = note.start();
+            this.stops[i] = note.stop();
+
+            if (note.pitch() < PitchUtil.MIN_MIDI  ||  PitchUtil.MAX_MIDI < note.pitch()) {
+                throw new IllegalArgumentException("pitch outside of MIDI range: " + note);
+            }
+            // By spelling (which determines the value), keeping the first instance of each
+            Short pitchIndex = pitchIndexes.get(note.getPitch().toString());
+            if (pitchIndex == null) {
+                if (pitchPool.size() == Short.MAX_VALUE) { throw new IllegalStateException("too many pitches"); }
+                pitchIndex = (short) pitchPool.size();
+                pitchIndexes.put(note.getPitch().toString(), pitchIndex);
+                pitchPool.add(note.getPitch());
+            }
+            this.pitchIndexes[i] = pitchIndex;
+
+            Short index = indexes.get(note.getSourceInstrument());
+            if (index == null) {
+                if (pool.size() == Short.MAX_VALUE) { throw new IllegalStateException("too many instruments"); }
+                index = (short) pool.size();
+                indexes.put(note.getSourceInstrument(), index);
+                pool.add(note.getSourceInstrument());
+            }
+            this.instrumentIndexes[i] = index;
+
+            int flag = note.getIsHeld() ? HELD : 0;
+            if (note.getHand() != null) { flag |= (note.getHand().ordinal() + 1) << HAND_SHIFT; }
+            this.flags[i] = (byte) flag;
+        }
+
+        this.pitches = pitchPool.toArray(new Pitch[0]);
+        this.instruments = pool.toArray(new String[0]);
+        this.instrumentIds = new int[this.instruments.length];
+        for (int i = 0; i < this.instruments.length; i++) {
+            this.instrumentIds[i] = InstrumentRegistry.idOf(this.instruments[i]);
+        }
+    }
+
+    public NoteTable(List<Note> notes) {
+        this(notes, Application.resolution);
+    }
+
+
+    //region row access
+
+    public int size() { return this.starts.length; }
+
+    public boolean isEmpty() { return this.starts.length == 0; }
+
+    public int getStart(int row) { return this.starts[row]; }
+
+    public int getStop(int row) { return this.stops[row]; }
+
+    public int getPitch(int row) { return this.pitches[this.pitchIndexes[row]].value(); }
+
+    /**
+     * @return The index, in {@link #getInstruments}, of {@code row}'s instrument. Not an {@link InstrumentRegistry}
+     *     id; see {@link #getInstrumentId} for that.
+     */
+    public int getInstrumentIndex(int row) { return this.instrumentIndexes[row]; }
+
+    /**
+     * @return The {@link InstrumentRegistry} id of {@code row}'s instrument.
+     */
+    public int getInstrumentId(int row) { return this.instrumentIds[this.instrumentIndexes[row]]; }
+
+    public String getInstrument(int row) { return this.instruments[this.instrumentIndexes[row]]; }
+
+    public boolean isHeld(int row) { return (this.flags[row] & HELD) != 0; }
+
+    public Hand getHand(int row) {
+        int hand = (this.flags[row] & HAND_MASK) >>> HAND_SHIFT;
+        return hand == 0 ? null : HANDS[hand - 1];
+    }
+
+    /**
+     * @return A new Note with the values of {@code row}.
+     */
+    public Note get(int row) {
+        return get(row, isHeld(row));
+    }
+
+    // As above, but held as given (Columns mark their holdovers this way, without a second copy)
+    Note get(int row, boolean isHeld) {
+        Range range = new Range(this.starts[row], this.stops[row]);
+        int instrument = this.instrumentIndexes[row];
+        return new Note(
+                range,
+                Rhythm.fromRange(range, this.resolution),
+                this.pitches[this.pitchIndexes[row]],
+                this.instruments[instrument],
+                this.instrumentIds[instrument],
+                isHeld,
+                getHand(row)
+        );
+    }
+
+    /**
+     * @return The distinct instrument names, indexed by instrument index.
+     */
+    public List<String> getInstruments() {
+        return Collections.unmodifiableList(Arrays.asList(this.instruments));
+    }
+
+    /**
+     * @return A mask with the {@link InstrumentRegistry} id of every row's instrument set.
+     */
+    public BitSet getInstrumentMask() {
+        BitSet mask = new BitSet();
+        for (int id : this.instrumentIds) {
+            if (id != InstrumentRegistry.NONE) { mask.set(id); }
+        }
+        return mask;
+    }
+
+    public int getResolution() { return this.resolution; }
+
+    /**
+     * @return Roughly the bytes held by this table's arrays (Pitches and instrument names, shared with the notes they
+     *     came from, are not counted).
+     */
+    public long getFootprintBytes() {
+        final int ARRAY_HEADER = 16;
+        long rows = (long) size() * (Integer.BYTES + Integer.BYTES + Short.BYTES + Short.BYTES + Byte.BYTES);
+        long pools = (long) this.pitches.length * Integer.BYTES + (long) this.instruments.length * 2 * Integer.BYTES;
+        return rows + 8L * ARRAY_HEADER + pools;
+    }
+
+    //endregion
+
+
+    /**
+     * Materializes every row as a Note view, in row order.
+     */
+    @Override public ArrayList<Note> getNotes() {
+        ArrayList<Note> notes = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) { notes.add(get(i)); }
+        return notes;
+    }
+
+
+}
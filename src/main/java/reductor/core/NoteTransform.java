@@ -0,0 +1,111 @@
+package reductor.core;
+
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * An immutable, composable set of field-level changes to apply to many Notes at once (see
+ * {@link Bucket#mapNotes} and {@link Piece#mapNotes}).
+ * <p>
+ * Each call returns a new transform with that change added; changes to the same field combine (two shifts add up, a
+ * later {@link #hand} wins over an earlier one). Applying a transform makes one new Note per changed note, sharing
+ * every component that did not change, rather than a copy of every component per field changed (as chaining
+ * {@link Note#setRange}, {@link Note#setIsHeld}, etc. does). Notes the transform would not change are returned as
+ * they are.
+ * <pre>{@code
+ * NoteTransform toRightHand = NoteTransform.identity()
+ *         .where(note -> 60 <= note.pitch())
+ *         .hand(Hand.RIGHT);
+ * }</pre>
+ */
+public final class NoteTransform implements UnaryOperator<Note> {
+
+    private static final NoteTransform IDENTITY = new NoteTransform(0, 0, null, null, null);
+
+    private final int shift;
+    private final int transposition;
+    // null means "leave as is" for each of these
+    private final Boolean isHeld;
+    private final Hand hand;
+    private final Predicate<? super Note> condition;
+
+
+    private NoteTransform(int shift, int transposition, Boolean isHeld, Hand hand, Predicate<? super Note> condition) {
+        this.shift = shift;
+        this.transposition = transposition;
+        this.isHeld = isHeld;
+        this.hand = hand;
+        this.condition = condition;
+    }
+
+    public static NoteTransform identity() { return IDENTITY; }
+
+
+    //region changes
+
+    /** Moves notes by {@code ticks} (negative moves them earlier); durations are unchanged. */
+    public NoteTransform shift(int ticks) {
+        return new NoteTransform(this.shift + ticks, this.transposition, this.isHeld, this.hand, this.condition);
+    }
+
+    /** Moves notes by {@code semitones} (negative moves them down). */
+    public NoteTransform transpose(int semitones) {
+        return new NoteTransform(this.shift, this.transposition + semitones, this.isHeld, this.hand, this.condition);
+    }
+
+    public NoteTransform markHeld(boolean isHeld) {
+        return new NoteTransform(this.shift, this.transposition, isHeld, this.hand, this.condition);
+    }
+
+    public NoteTransform hand(Hand hand) {
+        if (hand == null) { throw new NullPointerException("hand can't be null"); }
+        return new NoteTransform(this.shift, this.transposition, this.isHeld, hand, this.condition);
+    }
+
+    /**
+     * Restricts this transform to notes matching {@code condition}; others pass through unchanged. Conditions are
+     * tested against the original note, and combine with any earlier condition (both must hold).
+     */
+    public NoteTransform where(Predicate<? super Note> condition) {
+        Objects.requireNonNull(condition);
+        Predicate<? super Note> combined = this.condition == null
+                ? condition
+                : note -> this.condition.test(note) && condition.test(note);
+        return new NoteTransform(this.shift, this.transposition, this.isHeld, this.hand, combined);
+    }
+
+    //endregion
+
+
+    /** Returns true if pitches (and so the natural ordering of Notes) may change. */
+    public boolean changesPitch() { return this.transposition != 0; }
+
+    /**
+     * @return The transformed note, or {@code note} itself if nothing about it changes.
+     */
+    @Override public Note apply(Note note) {
+
+        if (this.condition != null  &&  !this.condition.test(note)) { return note; }
+
+        Range range = note.getRange();
+        if (this.shift != 0) { range = new Range(range.getLow() + this.shift, range.getHigh() + this.shift); }
+
+        Pitch pitch = note.getPitch();
+        if (this.transposition != 0) { pitch = Pitch.of(pitch.value() + this.transposition); }
+
+        boolean held = this.isHeld == null ? note.getIsHeld() : this.isHeld;
+        Hand hand = this.hand == null ? note.getHand() : this.hand;
+
+        if (range == note.getRange()  &&  pitch == note.getPitch()
+                &&  held == note.getIsHeld()  &&  hand == note.getHand()) {
+            return note;
+        }
+
+        return new Note(note, range, pitch, held, hand);
+    }
+
+
+}
@@ -2,6 +2,8 @@ package reductor.core;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 
 /** Noted denotes something as a container -- at some level -- of Note objects. */
@@ -13,4 +15,12 @@ public interface Noted {
      */
     ArrayList<Note> getNotes();
 
+    /**
+     * A read-only view of the Notes, for callers that only iterate. Implementations backed by a {@link Bucket} return
+     * a view of it rather than a copy; the default wraps {@link #getNotes()}.
+     */
+    default List<Note> getNotesView() {
+        return Collections.unmodifiableList(getNotes());
+    }
+
 }
@@ -1,10 +1,17 @@
 package reductor.core;
 
 import reductor.app.Application;
+import reductor.core.builders.PieceBuilder;
 import reductor.util.IntervalTree;
+import reductor.util.NoteIndex;
+import reductor.util.TimePitchIndex;
+import reductor.util.Timeline;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 // TODO minTick should ALWAYS be 0. Not the tick of the first event. Otherwise, measure creation is absolutely
 
@@ -15,24 +22,42 @@ public class Piece implements Ranged, Noted {
 
     private final Range range;
 
-    private final IntervalTree<Note> notes;
+    /*
+     The only copy of the notes: a NoteTable, in range order, and the index over its rows. Columns (and so
+     Measures) hold rows of the same table, and Note objects are only made as views when something asks for them.
+    */
+    private final NoteIndex notes;
+    // Null in a lazy piece, whose Columns and Measures the materializer builds on demand (and vice versa)
     private final IntervalTree<Measure> measures;
     private final IntervalTree<Column> columns;
+    private final PieceMaterializer materializer;
 
-    private final IntervalTree<TimeSignature> timeSignatures;
-    private final IntervalTree<KeySignature> keySignatures;
-    private final IntervalTree<Tempo> tempos;
+    private final Timeline<TimeSignature> timeSignatures;
+    private final Timeline<KeySignature> keySignatures;
+    private final Timeline<Tempo> tempos;
+
+    // InstrumentRegistry ids of this piece's notes
+    private final BitSet instruments;
+
+    // The pool this piece was built in (null for the calling thread); pieces derived from it are built the same way
+    private final ForkJoinPool pool;
+
+    // Built on first use, once (double-checked, as Measure's hand views are), and never changed after
+    private volatile TimePitchIndex timePitchIndex;
+    private volatile PieceFeatures features;
+    private volatile TempoMap tempoMap;
 
 
     public Piece(
             int resolution,
             Range range,
-            IntervalTree<Note> notes,
-            IntervalTree<TimeSignature> timeSignatures,
-            IntervalTree<KeySignature> keySignatures,
-            IntervalTree<Tempo> tempos,
+            NoteIndex notes,
+            Timeline<TimeSignature> timeSignatures,
+            Timeline<KeySignature> keySignatures,
+            Timeline<Tempo> tempos,
             IntervalTree<Measure> measures,
-            IntervalTree<Column> columns
+            IntervalTree<Column> columns,
+            ForkJoinPool pool
     ) {
         this.resolution = resolution;
         this.range = range;
@@ -42,12 +67,45 @@ public class Piece implements Ranged, Noted {
         this.tempos = tempos;
         this.measures = measures;
         this.columns = columns;
+        this.materializer = null;
+        this.pool = pool;
+
+        // Every note is in the Column it starts in, so this is the union of the Columns' masks
+        this.instruments = notes.getTable().getInstrumentMask();
 
         //// Default to C major for the whole piece if no key sig data was given
         //if (keySignatures.isEmpty()) { keySignatures = new ArrayList<>( List.of( new KeySignature("C", this.range)) ); }
         //this.ma = new MeasuresAccessor();
     }
 
+    /**
+     * A lazy piece: the note index exists up front, but Columns and Measures are only built (by
+     * {@code materializer}) when first asked for.
+     */
+    public Piece(
+            int resolution,
+            Range range,
+            NoteIndex notes,
+            Timeline<TimeSignature> timeSignatures,
+            Timeline<KeySignature> keySignatures,
+            Timeline<Tempo> tempos,
+            PieceMaterializer materializer,
+            ForkJoinPool pool
+    ) {
+        this.resolution = resolution;
+        this.range = range;
+        this.notes = notes;
+        this.timeSignatures = timeSignatures;
+        this.keySignatures = keySignatures;
+        this.tempos = tempos;
+        this.measures = null;
+        this.columns = null;
+        this.materializer = materializer;
+        this.pool = pool;
+
+        this.instruments = notes.getTable().getInstrumentMask();
+    }
+
 
     //region getters
 
@@ -67,17 +125,189 @@ public class Piece implements Ranged, Noted {
         return new ArrayList<>(this.tempos.toList());
     }
 
+    /** Returns the time signature in effect at {@code tick}, or null if none is. */
+    public TimeSignature getTimeSignatureAt(int tick) {
+        return this.timeSignatures.at(tick);
+    }
+
+    /** Returns the key signature in effect at {@code tick}, or null if none is. */
+    public KeySignature getKeySignatureAt(int tick) {
+        return this.keySignatures.at(tick);
+    }
+
+    /** Returns the tempo in effect at {@code tick}, or null if none is. */
+    public Tempo getTempoAt(int tick) {
+        return this.tempos.at(tick);
+    }
+
+    /** Returns every column, in order; in a lazy piece, this builds them all. */
     public List<Column> getColumns() {
-        return new ArrayList<>( this.columns.toList() );
+        return new ArrayList<>( columnList() );
     }
 
+    /** Returns every measure, in order; in a lazy piece, this builds them all. */
     public List<Measure> getMeasures() {
-        return new ArrayList<>( this.measures.toList() );
+        return new ArrayList<>( measureList() );
+    }
+
+    /** Returns the columns (in order) that overlap the passed window; in a lazy piece, only these are built. */
+    public List<Column> getColumns(Range window) {
+        if (this.materializer != null) { return this.materializer.getColumns(window); }
+        List<Column> out = this.columns.query(window);
+        out.sort(null);
+        return out;
+    }
+
+    /** Returns the measures (in order) that overlap the passed window; in a lazy piece, only these are built. */
+    public List<Measure> getMeasures(Range window) {
+        if (this.materializer != null) { return this.materializer.getMeasures(window); }
+        List<Measure> out = this.measures.query(window);
+        out.sort(Comparator.comparing(Measure::getRange));
+        return out;
+    }
+
+    /** Returns true if this piece builds its columns and measures on first access; see {@link PieceBuilder#lazy}. */
+    public boolean isLazy() {
+        return this.materializer != null;
+    }
+
+    PieceMaterializer getMaterializer() {
+        return this.materializer;
+    }
+
+    private List<Column> columnList() {
+        return this.materializer != null ? this.materializer.getAllColumns() : this.columns.toList();
+    }
+
+    private List<Measure> measureList() {
+        return this.materializer != null ? this.materializer.getAllMeasures() : this.measures.toList();
+    }
+
+    /** Returns the number of notes sounding at a tick, without collecting them. */
+    public int countNotesAt(int tick) {
+        return this.notes.countAt(tick);
+    }
+
+    /** Returns the notes sounding in the passed window with MIDI pitch in [lowPitch, highPitch]. */
+    public List<Note> getNotes(Range window, int lowPitch, int highPitch) {
+        return getTimePitchIndex().query(window, lowPitch, highPitch);
+    }
+
+    public TimePitchIndex getTimePitchIndex() {
+        TimePitchIndex index = this.timePitchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.timePitchIndex;
+                if (index == null) {
+                    index = new TimePitchIndex(this.notes.getTable().getNotes());
+                    this.timePitchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Returns the {@link NoteTable} this piece keeps its notes in (in range order); not a copy. */
+    public NoteTable getNoteTable() {
+        return this.notes.getTable();
+    }
+
+    /** Returns the features of every column, in column order, as primitive arrays. */
+    public PieceFeatures getFeatures() {
+        PieceFeatures features = this.features;
+        if (features == null) {
+            synchronized (this) {
+                features = this.features;
+                if (features == null) {
+                    features = new PieceFeatures(columnList());
+                    this.features = features;
+                }
+            }
+        }
+        return features;
+    }
+
+    /** Returns this piece's tick/wall-clock conversions. */
+    public TempoMap getTempoMap() {
+        TempoMap map = this.tempoMap;
+        if (map == null) {
+            synchronized (this) {
+                map = this.tempoMap;
+                if (map == null) {
+                    map = new TempoMap(this.tempos, this.resolution);
+                    this.tempoMap = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    /** Returns true if any note in this piece is from the passed instrument (see {@link InstrumentRegistry}). */
+    public boolean hasInstrument(int instrumentId) {
+        return instrumentId != InstrumentRegistry.NONE  &&  this.instruments.get(instrumentId);
+    }
+
+    /** Returns a copy of the set of {@link InstrumentRegistry} ids of this piece's notes. */
+    public BitSet getInstrumentMask() {
+        return (BitSet) this.instruments.clone();
+    }
+
+    /** Returns the names of this piece's instruments, in id order. */
+    public List<String> getInstruments() {
+        return this.instruments.stream().mapToObj(InstrumentRegistry::nameOf).toList();
+    }
+
+    /** Returns the columns (in order) with at least one note from the passed instrument; one bit test per column. */
+    public List<Column> getColumns(int instrumentId) {
+        List<Column> out = new ArrayList<>();
+        if (!hasInstrument(instrumentId)) { return out; }
+        for (Column column : columnList()) {
+            if (column.hasInstrument(instrumentId)) { out.add(column); }
+        }
+        return out;
+    }
+
+    /** Returns the measures (in order) with at least one note from the passed instrument; one bit test per measure. */
+    public List<Measure> getMeasures(int instrumentId) {
+        List<Measure> out = new ArrayList<>();
+        if (!hasInstrument(instrumentId)) { return out; }
+        for (Measure measure : measureList()) {
+            if (measure.hasInstrument(instrumentId)) { out.add(measure); }
+        }
+        return out;
+    }
+
+    /** Returns true if no note sounds anywhere in the passed window. */
+    public boolean isSilent(Range window) {
+        return !this.notes.anyOverlapping(window);
     }
 
     //endregion
 
 
+    /**
+     * Applies {@code transform} to every note, in one pass, and builds a new Piece from the results; this Piece is
+     * unchanged. Time signatures, key signatures and tempos are carried over as they are, so transforms that move
+     * notes past them (large shifts) should rebuild the Piece with a {@link PieceBuilder} instead.
+     * <p>
+     * The new Piece is built the way this one was: lazily if this one is lazy (so only the note index is rebuilt up
+     * front), and in the same pool.
+     */
+    public Piece mapNotes(NoteTransform transform) {
+        NoteTable source = this.notes.getTable();
+        List<Note> notes = new ArrayList<>(source.size());
+        for (int row = 0; row < source.size(); row++) { notes.add(transform.apply(source.get(row))); }
+        return PieceBuilder.builder(this.resolution)
+                .note(notes)
+                .timeSignature(this.timeSignatures)
+                .keySignature(this.keySignatures)
+                .tempo(this.tempos)
+                .lazy(isLazy())
+                .pool(this.pool)
+                .build();
+    }
+
+
     //region MeasureAccessor
 
 
@@ -137,11 +367,12 @@ public class Piece implements Ranged, Noted {
 
 
     @Override public Range getRange() {
-        return new Range(this.range);
+        return this.range;
     }
 
+    /** Returns a view of every note, in range order (see {@link NoteTable#getNotes}). */
     @Override public ArrayList<Note> getNotes() {
-        return new ArrayList<>(this.notes.toList());
+        return this.notes.getTable().getNotes();
     }
 
 
@@ -0,0 +1,139 @@
+package reductor.core;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * The {@link ColumnFeatures} of every Column of a Piece, in column order, stored one primitive array per feature
+ * (structure-of-arrays, as in {@link NoteTable}).
+ * <p>
+ * Heuristics that look at one or two features across the whole piece (e.g. "where does the span exceed an octave")
+ * scan a single contiguous array rather than chasing a Column, a record and a boxed value per column. Index
+ * {@code i} is the i-th Column of {@link Piece#getColumns()}.
+ */
+public class PieceFeatures {
+
+    private final int[] starts;
+    private final int[] stops;
+    private final int[] lows;
+    private final int[] highs;
+    private final int[] spans;
+    private final int[] medians;
+    private final double[] means;
+    private final short[] pitchClassMasks;
+    private final int[] counts;
+    private final int[] holdovers;
+
+
+    public PieceFeatures(List<Column> columns) {
+
+        if (columns == null) { throw new NullPointerException(""); }
+
+        int size = columns.size();
+        this.starts = new int[size];
+        this.stops = new int[size];
+        this.lows = new int[size];
+        this.highs = new int[size];
+        this.spans = new int[size];
+        this.medians = new int[size];
+        this.means = new double[size];
+        this.pitchClassMasks = new short[size];
+        this.counts = new int[size];
+        this.holdovers = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            Column column = columns.get(i);
+            ColumnFeatures features = column.getFeatures();
+            this.starts[i] = column.getRange().getLow();
+            this.stops[i] = column.getRange().getHigh();
+            this.lows[i] = features.low();
+            this.highs[i] = features.high();
+            this.spans[i] = features.span();
+            this.medians[i] = features.median();
+            this.means[i] = features.mean();
+            this.pitchClassMasks[i] = (short) features.pitchClassMask();
+            this.counts[i] = features.count();
+            this.holdovers[i] = features.holdovers();
+        }
+    }
+
+
+    //region per column
+
+    public int size() { return this.starts.length; }
+
+    public int getStart(int column) { return this.starts[column]; }
+    public int getStop(int column) { return this.stops[column]; }
+    public int getLow(int column) { return this.lows[column]; }
+    public int getHigh(int column) { return this.highs[column]; }
+    public int getSpan(int column) { return this.spans[column]; }
+    public int getMedian(int column) { return this.medians[column]; }
+    public double getMean(int column) { return this.means[column]; }
+    public int getPitchClassMask(int column) { return this.pitchClassMasks[column]; }
+    public int getCount(int column) { return this.counts[column]; }
+    public int getHoldovers(int column) { return this.holdovers[column]; }
+
+    /**
+     * @return The index of the Column sounding at {@code tick}, or -1 if {@code tick} is before the first one.
+     */
+    public int indexAt(int tick) {
+        int index = Arrays.binarySearch(this.starts, tick);
+        return index >= 0 ? index : -(index + 1) - 1;
+    }
+
+    //endregion
+
+
+    //region whole-piece arrays (copies)
+
+    public int[] getLows() { return this.lows.clone(); }
+    public int[] getHighs() { return this.highs.clone(); }
+    public int[] getSpans() { return this.spans.clone(); }
+    public int[] getMedians() { return this.medians.clone(); }
+    public double[] getMeans() { return this.means.clone(); }
+    public int[] getCounts() { return this.counts.clone(); }
+    public int[] getHoldovers() { return this.holdovers.clone(); }
+
+    //endregion
+
+
+    //region scans
+
+    /** Returns the lowest pitch in the piece, or -1 if it has no notes. */
+    public int getLowest() {
+        int lowest = Integer.MAX_VALUE;
+        for (int low : this.lows) {
+            if (0 <= low  &&  low < lowest) { lowest = low; }
+        }
+        return lowest == Integer.MAX_VALUE ? -1 : lowest;
+    }
+
+    /** Returns the highest pitch in the piece, or -1 if it has no notes. */
+    public int getHighest() {
+        int highest = -1;
+        for (int high : this.highs) { highest = Math.max(highest, high); }
+        return highest;
+    }
+
+    /** Returns the number of Columns whose span is over {@code semitones}. */
+    public int countSpansOver(int semitones) {
+        int count = 0;
+        for (int span : this.spans) {
+            if (semitones < span) { count++; }
+        }
+        return count;
+    }
+
+    /** Returns the union of every Column's pitch classes over Columns [first, last). */
+    public int pitchClassesBetween(int first, int last) {
+        int mask = 0;
+        for (int i = first; i < last; i++) { mask |= this.pitchClassMasks[i]; }
+        return mask;
+    }
+
+    //endregion
+
+
+}
@@ -0,0 +1,163 @@
+package reductor.core;
+
+
+import reductor.util.NoteIndex;
+import reductor.util.Timeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The Columns and Measures of a lazily built Piece (see {@code PieceBuilder#lazy}), constructed on first access and
+ * cached.
+ * <p>
+ * Only the boundaries are computed up front (one int per Column and per Measure); a Column is built from a query of
+ * the note index over its own range (rows, not Notes), and a Measure from its own Columns. Looking at one passage of
+ * a huge piece therefore costs in proportion to that passage, not to the piece. Everything built is identical to what
+ * an eager build produces, notes included in the same order.
+ * <p>
+ * Access is synchronized, so each Column and Measure is only ever built once, and every Measure holds the same
+ * Column instances as {@link #getColumn} returns.
+ */
+public class PieceMaterializer {
+
+    private final NoteIndex notes;
+    // Column i covers [columnStarts[i], columnStarts[i + 1] - 1]; the last one ends at lastTick - 1. Same for Measures.
+    private final int[] columnStarts;
+    private final int[] measureStarts;
+    private final int lastTick;
+
+    private final Timeline<TimeSignature> timeSigs;
+    private final Timeline<KeySignature> keySigs;
+    private final Timeline<Tempo> tempos;
+
+    // Null until built
+    private final Column[] columns;
+    private final Measure[] measures;
+    private int builtColumns;
+    private int builtMeasures;
+
+
+    /**
+     * @param columnStarts The start tick of every Column, sorted and distinct.
+     * @param measureStarts The start tick of every Measure, sorted and distinct.
+     * @param lastTick The tick just after the last Column and Measure end.
+     */
+    public PieceMaterializer(NoteIndex notes, int[] columnStarts, int[] measureStarts, int lastTick,
+                             Timeline<TimeSignature> timeSigs, Timeline<KeySignature> keySigs,
+                             Timeline<Tempo> tempos) {
+        this.notes = notes;
+        this.columnStarts = columnStarts;
+        this.measureStarts = measureStarts;
+        this.lastTick = lastTick;
+        this.timeSigs = timeSigs;
+        this.keySigs = keySigs;
+        this.tempos = tempos;
+        this.columns = new Column[columnStarts.length];
+        this.measures = new Measure[measureStarts.length];
+    }
+
+
+    //region by index
+
+    public int getColumnCount() { return this.columns.length; }
+
+    public int getMeasureCount() { return this.measures.length; }
+
+    public synchronized Column getColumn(int index) {
+        if (this.columns[index] == null) {
+            Range range = rangeOf(this.columnStarts, index);
+            this.columns[index] = new Column(this.notes.getTable(), this.notes.rowsOverlapping(range), range);
+            this.builtColumns++;
+        }
+        return this.columns[index];
+    }
+
+    public synchronized Measure getMeasure(int index) {
+        if (this.measures[index] == null) {
+            Range range = rangeOf(this.measureStarts, index);
+            int low = range.getLow();
+            this.measures[index] = new Measure(getColumns(range), range, found(this.timeSigs.at(low), low),
+                    found(this.keySigs.at(low), low), found(this.tempos.at(low), low));
+            this.builtMeasures++;
+        }
+        return this.measures[index];
+    }
+
+    //endregion
+
+
+    //region by window
+
+    /** Returns the Columns (in order) that overlap {@code window}, building any that have not been yet. */
+    public synchronized List<Column> getColumns(Range window) {
+        int[] span = indexesOverlapping(this.columnStarts, window);
+        List<Column> out = new ArrayList<>(span[1] - span[0]);
+        for (int i = span[0]; i < span[1]; i++) { out.add(getColumn(i)); }
+        return out;
+    }
+
+    /** Returns the Measures (in order) that overlap {@code window}, building any that have not been yet. */
+    public synchronized List<Measure> getMeasures(Range window) {
+        int[] span = indexesOverlapping(this.measureStarts, window);
+        List<Measure> out = new ArrayList<>(span[1] - span[0]);
+        for (int i = span[0]; i < span[1]; i++) { out.add(getMeasure(i)); }
+        return out;
+    }
+
+    /** Builds (if need be) and returns every Column, in order. */
+    public synchronized List<Column> getAllColumns() {
+        List<Column> out = new ArrayList<>(this.columns.length);
+        for (int i = 0; i < this.columns.length; i++) { out.add(getColumn(i)); }
+        return out;
+    }
+
+    /** Builds (if need be) and returns every Measure, in order. */
+    public synchronized List<Measure> getAllMeasures() {
+        List<Measure> out = new ArrayList<>(this.measures.length);
+        for (int i = 0; i < this.measures.length; i++) { out.add(getMeasure(i)); }
+        return out;
+    }
+
+    //endregion
+
+
+    /** Returns how many Columns have been built so far. */
+    public synchronized int getBuiltColumnCount() { return this.builtColumns; }
+
+    /** Returns how many Measures have been built so far. */
+    public synchronized int getBuiltMeasureCount() { return this.builtMeasures; }
+
+
+    //region helpers
+
+    private Range rangeOf(int[] starts, int index) {
+        int next = index + 1 < starts.length ? starts[index + 1] : this.lastTick;
+        return new Range(starts[index], next - 1);
+    }
+
+    // [first, last) of the elements (contiguous, starting at starts[i]) that overlap window
+    private int[] indexesOverlapping(int[] starts, Range window) {
+        if (starts.length == 0  ||  this.lastTick <= window.getLow()) { return new int[]{ 0, 0 }; }
+        int first = Math.max(0, lastStartingBy(starts, window.getLow()));
+        int last = lastStartingBy(starts, window.getHigh()) + 1;
+        return new int[]{ first, Math.max(first, last) };
+    }
+
+    private static int lastStartingBy(int[] starts, int tick) {
+        int index = Arrays.binarySearch(starts, tick);
+        return index >= 0 ? index : -(index + 1) - 1;
+    }
+
+    private static <E> E found(E match, int point) {
+        if (match == null) { throw new NoSuchElementException("nothing found at tick " + point); }
+        return match;
+    }
+
+    //endregion
+
+
+}
@@ -3,11 +3,28 @@ package reductor.core;
 
 import reductor.util.PitchUtil;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 
 
+/**
+ * An immutable pitch, e.g. "C#4".
+ * <p>
+ * Prefer {@link #of(int)} and {@link #of(String)} to the constructors: they hand out shared instances, so the
+ * regex parse behind every Pitch runs once per distinct MIDI value/spelling rather than once per note.
+ */
 public class Pitch implements Comparable<Pitch> {
 
+    // One instance per MIDI value, spelled the way PitchUtil spells MIDI values
+    private static final Pitch[] BY_MIDI_VALUE = new Pitch[PitchUtil.MAX_MIDI + 1];
+    static {
+        for (int i = 0; i < BY_MIDI_VALUE.length; i++) { BY_MIDI_VALUE[i] = new Pitch(i); }
+    }
+
+    // One instance per spelling asked for so far (e.g., "F#4" and "Gb4" are different entries)
+    private static final Map<String, Pitch> BY_SPELLING = new ConcurrentHashMap<>();
+
     private final int letter;
     private final int accidental;
     private final int register;
@@ -15,6 +32,30 @@ public class Pitch implements Comparable<Pitch> {
 
     private final String str;
 
+    /**
+     * Returns the shared Pitch for a MIDI value (spelled as {@code new Pitch(midiValue)} would spell it).
+     *
+     * @throws IllegalArgumentException under the same conditions as {@link #Pitch(int)}
+     */
+    public static Pitch of(int midiValue) {
+        if (PitchUtil.MIN_MIDI <= midiValue  &&  midiValue <= PitchUtil.MAX_MIDI) { return BY_MIDI_VALUE[midiValue]; }
+        return new Pitch(midiValue);
+    }
+
+    /**
+     * Returns the shared Pitch for a spelling, parsing it only the first time it is seen.
+     *
+     * @throws IllegalArgumentException under the same conditions as {@link #Pitch(String)}
+     */
+    public static Pitch of(String str) {
+        Pitch pitch = BY_SPELLING.get(str);
+        if (pitch != null) { return pitch; }
+        // Parse outside of the map so a bad spelling throws without leaving anything behind
+        pitch = new Pitch(str);
+        Pitch raced = BY_SPELLING.putIfAbsent(str, pitch);
+        return raced != null ? raced : pitch;
+    }
+
     public Pitch(String str) {
         this(str, true);
     }
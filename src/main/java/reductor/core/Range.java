@@ -1,9 +1,6 @@
 package reductor.core;
 
 
-import java.util.*;
-
-
 public class Range implements Ranged, Comparable<Range> {
 
     /** Lower/lesser/left endpoint of this Range. */
@@ -35,6 +32,8 @@ public class Range implements Ranged, Comparable<Range> {
 
     /**
      * Creates a deep copy of the passed Range.
+     * <p>
+     * Ranges are immutable, so holders share them (and return them from {@code getRange()}) rather than copy.
      *
      * @param other The other Range object to copy.
      * @throws NullPointerException If the passed Range is null.
@@ -107,16 +106,38 @@ public class Range implements Ranged, Comparable<Range> {
         return this.low == range.low && this.high == range.high;
     }
 
-    /** Returns a hash code derived from this range's endpoints. */
+    /** Returns a hash code derived from this range's endpoints (same value as {@code Objects.hash(low, high)}). */
     @Override
     public int hashCode() {
-        return Objects.hash(this.low, this.high);
+        return 31 * (31 + this.low) + this.high;
     }
 
     /** Returns this (satisfying contract with {@link Ranged} interface). */
     @Override
     public Range getRange() { return this; }
 
+    /**
+     * Packs this Range into a single long: low in the upper 32 bits, high in the lower 32.
+     * <p>
+     * Both endpoints are non-negative, so packed values sort exactly like Ranges do ({@link #compareTo}), and
+     * two Ranges are equal exactly when their packed values are.
+     *
+     * @see RangeList
+     */
+    public long pack() { return pack(this.low, this.high); }
+
+    /** Packs the passed endpoints without constructing (or validating) a Range. */
+    public static long pack(int low, int high) { return ((long) low << 32) | (high & 0xFFFFFFFFL); }
+
+    /** Returns the low endpoint of a packed Range. */
+    public static int packedLow(long packed) { return (int) (packed >>> 32); }
+
+    /** Returns the high endpoint of a packed Range. */
+    public static int packedHigh(long packed) { return (int) packed; }
+
+    /** Constructs the Range a packed value represents. */
+    public static Range unpack(long packed) { return new Range(packedLow(packed), packedHigh(packed)); }
+
     /** Returns a string representation of this range in the form {@code "[low, high]"}. */
     @Override
     public String toString() { return "[%d, %d]".formatted(this.low, this.high); }
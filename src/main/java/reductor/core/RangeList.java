@@ -0,0 +1,157 @@
+package reductor.core;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * A growable list of Ranges, stored as packed longs (see {@link Range#pack()}) rather than as Range objects.
+ * <p>
+ * Meant for bulk work on many ranges at once (column and measure boundaries, start ticks, etc.): sorting,
+ * de-duplicating and searching all run over a single {@code long[]}, and Range objects are only created when one
+ * is asked for ({@link #get}, {@link #toList}).
+ */
+public class RangeList {
+
+    private long[] packed;
+    private int size;
+
+
+    public RangeList() {
+        this(16);
+    }
+
+    public RangeList(int initialCapacity) {
+        if (initialCapacity < 0) { throw new IllegalArgumentException("capacity can't be negative"); }
+        this.packed = new long[initialCapacity];
+        this.size = 0;
+    }
+
+    public static <T extends Ranged> RangeList of(Collection<T> rangedElems) {
+        RangeList list = new RangeList(rangedElems.size());
+        for (T elem : rangedElems) { list.add(elem.getRange()); }
+        return list;
+    }
+
+
+    //region mutators
+
+    /**
+     * Appends a range given by its endpoints, validated exactly as {@link Range#Range(int, int)} would.
+     */
+    public RangeList add(int low, int high) {
+        if (high <= low) {
+            throw new IllegalArgumentException("given an invalid range: [" + low + ", " + high + "]");
+        }
+        if (low < 0) {
+            throw new IllegalArgumentException("range cannot be constructed with negative numbers");
+        }
+        if (this.size == this.packed.length) {
+            this.packed = Arrays.copyOf(this.packed, Math.max(16, this.size * 2));
+        }
+        this.packed[this.size++] = Range.pack(low, high);
+        return this;
+    }
+
+    public RangeList add(Range range) {
+        return add(range.getLow(), range.getHigh());
+    }
+
+    /**
+     * Sorts in place into Range order (by low, then high).
+     */
+    public RangeList sort() {
+        Arrays.sort(this.packed, 0, this.size);
+        return this;
+    }
+
+    /**
+     * Removes adjacent equal ranges in place; on a sorted list, this leaves every range exactly once.
+     */
+    public RangeList dedupe() {
+        if (this.size < 2) { return this; }
+        int kept = 1;
+        for (int i = 1; i < this.size; i++) {
+            if (this.packed[i] != this.packed[kept - 1]) { this.packed[kept++] = this.packed[i]; }
+        }
+        this.size = kept;
+        return this;
+    }
+
+    //endregion
+
+
+    //region search
+
+    /**
+     * Binary searches a sorted list.
+     *
+     * @return The index of {@code range} if present; otherwise {@code -(insertion point) - 1}, as with
+     *     {@link Arrays#binarySearch(long[], long)}.
+     */
+    public int binarySearch(Range range) {
+        return Arrays.binarySearch(this.packed, 0, this.size, range.pack());
+    }
+
+    /**
+     * For a sorted list of non-overlapping ranges (columns, measures, etc.), finds the one containing a tick.
+     *
+     * @return The index of the range containing {@code tick}, or -1 if none does.
+     */
+    public int indexContaining(int tick) {
+        if (tick < 0) { return -1; }
+        // No real range has a high of 0xFFFFFFFF, so this lands just past every range starting at or before tick
+        int insertion = -Arrays.binarySearch(this.packed, 0, this.size, Range.pack(tick, -1)) - 1;
+        int candidate = insertion - 1;
+        if (candidate < 0  ||  getHigh(candidate) < tick) { return -1; }
+        return candidate;
+    }
+
+    //endregion
+
+
+    //region getters
+
+    public int size() { return this.size; }
+
+    public boolean isEmpty() { return this.size == 0; }
+
+    public int getLow(int index) { return Range.packedLow(this.packed[checkIndex(index)]); }
+
+    public int getHigh(int index) { return Range.packedHigh(this.packed[checkIndex(index)]); }
+
+    public long getPacked(int index) { return this.packed[checkIndex(index)]; }
+
+    /** Returns a new Range for the range at {@code index}. */
+    public Range get(int index) { return Range.unpack(this.packed[checkIndex(index)]); }
+
+    /** Returns every range as a Range object, in list order. */
+    public List<Range> toList() {
+        List<Range> out = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) { out.add(Range.unpack(this.packed[i])); }
+        return out;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0  ||  this.size <= index) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + this.size);
+        }
+        return index;
+    }
+
+    //endregion
+
+
+    @Override public String toString() {
+        StringBuilder str = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (0 < i) { str.append(", "); }
+            str.append("[%d, %d]".formatted(getLow(i), getHigh(i)));
+        }
+        return str.append("]").toString();
+    }
+
+}
@@ -2,6 +2,7 @@ package reductor.core;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -55,7 +56,7 @@ public class RangeUtil {
     /**
      * Splits two passed overlapping Ranges into three distinct regions.
      * <p>
-     * If the Ranges do not overlap at all, just returns copies of those Ranges.
+     * If the Ranges do not overlap at all, just returns those Ranges.
      * <pre>
      * Given:
      *     0         20
@@ -75,12 +76,12 @@ public class RangeUtil {
      *             <li>Shared region</li>
      *             <li>Right-only region</li>
      *         </ol>
-     *         If no overlap exists, the list contains copies of {@code r1} and {@code r2}.
+     *         If no overlap exists, the list contains {@code r1} and {@code r2} themselves.
      */
     public static ArrayList<Range> splitIntoThree(Range r1, Range r2) {
 
         if (!r1.overlaps(r2)) {
-            return new ArrayList<>( List.of(new Range(r1), new Range(r2)) );
+            return new ArrayList<>( List.of(r1, r2) );
         }
 
         // Find the rightmost left endpoint
@@ -134,6 +135,54 @@ public class RangeUtil {
         return out;
     }
 
+    /**
+     * Primitive overload of {@link #fromStartTicks(Set, long)}: same result, but without boxing any of the points.
+     * <p>
+     * {@code points} may be unsorted and contain duplicates; it is not modified.
+     *
+     * @param points Points on the number line (like start ticks).
+     * @param lastEndpoint The (LTR) terminus of the number line.
+     * @return The intervals between the points, in order.
+     * @throws IllegalArgumentException if {@code lastEndpoint <= max(points)}
+     */
+    public static RangeList fromStartTicks(int[] points, int lastEndpoint) {
+
+        if (points == null || points.length == 0) { return new RangeList(0); }
+
+        int[] sorted = points.clone();
+        Arrays.sort(sorted);
+        if (lastEndpoint <= sorted[sorted.length - 1]) {
+            throw new IllegalArgumentException("last endpoint should be greater than last point");
+        }
+
+        RangeList out = new RangeList(sorted.length);
+        for (int i = 0; i < sorted.length; i++) {
+            // Skip duplicates; the last copy of a point is the one that knows where the next distinct point is
+            if (i < sorted.length - 1  &&  sorted[i] == sorted[i + 1]) { continue; }
+            int nextTick = i < sorted.length - 1 ? sorted[i + 1] : lastEndpoint;
+            out.add(sorted[i], nextTick - 1); // ranges are half-open
+        }
+
+        return out;
+    }
+
+    /**
+     * Primitive overload of {@link #concatenate(Collection)}.
+     */
+    public static Range concatenate(RangeList ranges) {
+
+        if (ranges.isEmpty()) { throw new RuntimeException("can't concatenate empty list"); }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.getLow(i) < min) { min = ranges.getLow(i); }
+            if (ranges.getHigh(i) > max) { max = ranges.getHigh(i); }
+        }
+
+        return new Range(min, max);
+    }
+
     /**
      * Splits a single Range up by a uniform window size.
      *
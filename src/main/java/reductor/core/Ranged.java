@@ -8,7 +8,10 @@ package reductor.core;
  */
 public interface Ranged {
 
-    /** All Ranged elements are guaranteed to have and provide their Range. */
+    /**
+     * All Ranged elements are guaranteed to have and provide their Range. Ranges are immutable, so implementations
+     * return their own instance rather than a copy.
+     */
     Range getRange();
 
 }
\ No newline at end of file
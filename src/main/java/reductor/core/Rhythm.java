@@ -1,5 +1,7 @@
 package reductor.core;
 
+import reductor.app.Application;
+
 import java.util.Objects;
 
 
@@ -7,26 +9,32 @@ public class Rhythm {
 
 
     // in enum ordinal order: whole, half, quarter, 8th, 16th, 32nd, 64th, 128th
-    // `base` is the nearest note value in that list _without going over_
-    private RhythmType base;
+    // `base` is the nearest note value in that list _without going over_ (see RhythmTable)
+    private final RhythmType base;
     // This can be gotten from the enum at any time, just nice to have calculated once
     private final int baseDuration;
     // The duration passed to the constructor
     private final int actualDuration;
 
-    private boolean isTriplet;
+    private final boolean isTriplet;
     // There is absolutely no way to tell between these two from MIDI data, for equivalent durations
     // If it's not a triplet or dotted, it gets flagged as some sort of tied
-    private boolean isDotted;
-    private boolean isTied;
+    private final boolean isDotted;
+    private final boolean isTied;
     // Trill, tremolo, grace, turn, etc. Anything less than a 32nd note.
-    private boolean isOrnament;
+    private final boolean isOrnament;
+    // Ticks per quarter note this was classified at
+    private final int resolution;
 
 
     public static Rhythm fromRange(Range range) {
         return new Rhythm(range.length() + 1);
     }
 
+    public static Rhythm fromRange(Range range, int resolution) {
+        return new Rhythm(range.length() + 1, resolution);
+    }
+
     public static Rhythm fromType(RhythmType enumVal) {
         return new Rhythm(enumVal.getDuration());
     }
@@ -40,92 +48,36 @@ public class Rhythm {
         this.isDotted = other.isDotted;
         this.isTied = other.isTied;
         this.isOrnament = other.isOrnament;
+        this.resolution = other.resolution;
     }
 
+    /// Classifies at {@link Application#resolution}
     public Rhythm(int actualDuration) {
-
-        this.base = RhythmType.getEnumType(actualDuration);
-        this.actualDuration = actualDuration;
-        this.baseDuration = this.base.getDuration();
-
-        checkTriplet();
-
-        /*
-         if this is:
-            == 0: we are done. it is exactly a quarter, 16th, etc.
-             > 0: it is greater than its base, so it is some kind of dotted
-             < 0: if exactly half, then dotted; if not, some kind of tie
-        */
-        if (!isTriplet) {
-            long remainder = Math.abs(this.baseDuration - this.actualDuration);
-            if (remainder != 0) {
-                if (remainder == baseDuration / 2) {
-                    isDotted = true;
-                } else {
-                    isTied = true;
-                }
-            }
-        }
-
-        if (this.base.compareTo(RhythmType.THIRTY_SECOND) > 0) {
-            isOrnament = true;
-        }
-
+        this(actualDuration, Application.resolution);
     }
 
-    private void checkTriplet() {
-
-        /*
-         Yes this is messy, but here's what it does (using triplet EIGHTHs as an example:
-
-         1.) The base is assigned so that, based on the passed duration, the nearest rhythm value is assigned, _without
-         going over_. This is so that the Rhythm class can use the base as a "species" of sort.
-                + "This note is some species of EIGHTH note: tied, dotted, tripleted, etc.
-         2.) However, due to how triplets work, a triplet EIGHTH is actually defined by being part of a trio that fits
-          into a QUARTER note, i.e., the next biggest rhythm value.
-                + Triplet HALF note fit into a WHOLE note
-                + Triple QUARTER note fit into a HALF note
-                + etc.
-         3.) But, because the actual duration of triplet note are LESS than their species version (i.e. a triplet
-         EIGHTH is smaller in duration than an EIGHTH), they actually get assigned the next smallest base/species (e
-         .g. a triplet EIGHTH gets assigned as "some form of SIXTEENTH")
-         4.) To check for triplet values, we need to check if something is exactly (or within some threshold of)
-         one-third the value of the ENCLOSING base (e.g. a QUARTER encloses the duration of 3 tripleted EIGHTHs);
-         since we are already bumped down to a SIXTEENTH due to the fact that the duration is less than an EIGHTH, we
-         have to actually check up 2.
-         5.) This also just leads to some messy boundary checks due to the limitations of the enum values array itself
-
-         So:
-            + If the passed duration is exactly one-third the value of the base TWO bases up from me, I am a triplet of
-            that base.
-
-        */
-
-        RhythmType enclosingRhythm;
-
-        int ordinal = this.base.ordinal();
-        if (ordinal == 0) {
-            // this is a WHOLE note
-            return;
-        } else if (ordinal == 1) {
-            // this is a HALF note
-            enclosingRhythm = RhythmType.values()[ordinal - 1];
-        } else {
-            // this is anything else
-            enclosingRhythm =  RhythmType.values()[ordinal - 2];
-        }
-
-        var tripletedValue = enclosingRhythm.getDuration() / 3;
-        if (actualDuration == tripletedValue) {
-            isTriplet = true;
-            // Re-assign to be more accurate ("some species of")
-            this.base = RhythmType.values()[base.ordinal() - 1];
-        }
-
+    /**
+     * @param actualDuration The duration, in ticks.
+     * @param resolution Ticks per quarter note, which determines what the duration is classified as.
+     */
+    public Rhythm(int actualDuration, int resolution) {
+        RhythmTable table = RhythmTable.forResolution(resolution);
+        int entry = table.entry(actualDuration);
+        this.base = RhythmTable.base(entry);
+        this.baseDuration = RhythmTable.species(entry).getDuration(resolution);
+        this.actualDuration = actualDuration;
+        this.isTriplet = RhythmTable.hasFlag(entry, RhythmTable.TRIPLET);
+        this.isDotted = RhythmTable.hasFlag(entry, RhythmTable.DOTTED);
+        this.isTied = RhythmTable.hasFlag(entry, RhythmTable.TIED);
+        this.isOrnament = RhythmTable.hasFlag(entry, RhythmTable.ORNAMENT);
+        this.resolution = resolution;
     }
 
     public int getDuration() { return this.actualDuration; }
 
+    /** Returns the ticks per quarter note this Rhythm was classified at. */
+    public int getResolution() { return this.resolution; }
+
     public boolean isTriplet() { return this.isTriplet; }
     public boolean isDotted() { return this.isDotted; }
     public boolean isTied() { return this.isTied; }
@@ -0,0 +1,132 @@
+package reductor.core;
+
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Rhythm classification (base {@link RhythmType}, and triplet/dotted/tied/ornament flags) of every duration up to two
+ * whole notes, precomputed once per resolution and shared.
+ * <p>
+ * {@link Rhythm} reads its fields from here, so classifying a note is an array lookup rather than a scan of
+ * {@link RhythmType}. Each table is immutable and keyed by its resolution, so pieces with different resolutions can
+ * be classified at the same time. Durations past the end of the table (or negative ones) are classified on the fly,
+ * the same way.
+ */
+public final class RhythmTable {
+
+    private static final Map<Integer, RhythmTable> TABLES = new ConcurrentHashMap<>();
+    private static final RhythmType[] TYPES = RhythmType.values();
+
+    // An entry is: flags in bits 0-3, base ordinal in bits 4-8, and, in bits 9-13, the ordinal of the base before
+    // triplet re-assignment (which is what a Rhythm's baseDuration is taken from)
+    static final int TRIPLET = 1;
+    static final int DOTTED = 1 << 1;
+    static final int TIED = 1 << 2;
+    static final int ORNAMENT = 1 << 3;
+    private static final int BASE_SHIFT = 4;
+    private static final int SPECIES_SHIFT = 9;
+    private static final int ORDINAL_MASK = 0b11111;
+
+    private final int resolution;
+    private final int[] entries;
+
+
+    private RhythmTable(int resolution) {
+        this.resolution = resolution;
+        this.entries = new int[2 * RhythmType.WHOLE.getDuration(resolution) + 1];
+        for (int duration = 0; duration < this.entries.length; duration++) {
+            this.entries[duration] = classify(duration, resolution);
+        }
+    }
+
+    /**
+     * @param resolution Ticks per quarter note, in [1,32767].
+     * @return The (shared) table for {@code resolution}, built on first request.
+     */
+    public static RhythmTable forResolution(int resolution) {
+        if (resolution < 1 || 32767 < resolution) {
+            throw new IllegalArgumentException("valid resolutions are in [1,32767]");
+        }
+        return TABLES.computeIfAbsent(resolution, RhythmTable::new);
+    }
+
+
+    //region lookups
+
+    public int getResolution() { return this.resolution; }
+
+    public RhythmType getBase(int duration) { return base(entry(duration)); }
+
+    public boolean isTriplet(int duration) { return (entry(duration) & TRIPLET) != 0; }
+    public boolean isDotted(int duration) { return (entry(duration) & DOTTED) != 0; }
+    public boolean isTied(int duration) { return (entry(duration) & TIED) != 0; }
+    public boolean isOrnament(int duration) { return (entry(duration) & ORNAMENT) != 0; }
+
+    int entry(int duration) {
+        if (0 <= duration  &&  duration < this.entries.length) { return this.entries[duration]; }
+        return classify(duration, this.resolution);
+    }
+
+    static RhythmType base(int entry) { return TYPES[(entry >>> BASE_SHIFT) & ORDINAL_MASK]; }
+
+    static RhythmType species(int entry) { return TYPES[(entry >>> SPECIES_SHIFT) & ORDINAL_MASK]; }
+
+    static boolean hasFlag(int entry, int flag) { return (entry & flag) != 0; }
+
+    //endregion
+
+
+    private static int classify(int duration, int resolution) {
+
+        // The nearest rhythm value _without going over_
+        RhythmType species = RhythmType.getEnumType(duration, resolution);
+        RhythmType base = species;
+        int flags = 0;
+
+        /*
+         Triplets (using triplet EIGHTHs as an example):
+
+         1.) The base is assigned so that, based on the passed duration, the nearest rhythm value is assigned, _without
+         going over_. This is so that the Rhythm class can use the base as a "species" of sort.
+                + "This note is some species of EIGHTH note: tied, dotted, tripleted, etc.
+         2.) However, due to how triplets work, a triplet EIGHTH is actually defined by being part of a trio that fits
+          into a QUARTER note, i.e., the next biggest rhythm value.
+         3.) But, because the actual duration of triplet note are LESS than their species version (i.e. a triplet
+         EIGHTH is smaller in duration than an EIGHTH), they actually get assigned the next smallest base/species.
+         4.) So, to check for triplet values, we check if the duration is exactly one-third the value of the base TWO
+         bases up (the ENCLOSING base), with some boundary checks at the top of the enum.
+        */
+        int ordinal = species.ordinal();
+        if (ordinal != 0) {
+            RhythmType enclosing = ordinal == 1 ? TYPES[0] : TYPES[ordinal - 2];
+            if (duration == enclosing.getDuration(resolution) / 3) {
+                flags |= TRIPLET;
+                // Re-assign to be more accurate ("some species of")
+                base = TYPES[ordinal - 1];
+            }
+        }
+
+        /*
+         if the difference from the species is:
+            == 0: we are done. it is exactly a quarter, 16th, etc.
+             > 0: it is greater than its base, so it is some kind of dotted
+             < 0: if exactly half, then dotted; if not, some kind of tie
+        */
+        if ((flags & TRIPLET) == 0) {
+            int speciesDuration = species.getDuration(resolution);
+            long remainder = Math.abs((long) speciesDuration - duration);
+            if (remainder != 0) {
+                flags |= remainder == speciesDuration / 2 ? DOTTED : TIED;
+            }
+        }
+
+        // Trill, tremolo, grace, turn, etc. Anything less than a 32nd note.
+        if (base.compareTo(RhythmType.THIRTY_SECOND) > 0) { flags |= ORNAMENT; }
+
+        return flags | base.ordinal() << BASE_SHIFT | species.ordinal() << SPECIES_SHIFT;
+    }
+
+
+}
@@ -80,6 +80,11 @@ public enum RhythmType {
         return this.duration;
     }
 
+    /** Returns this value's duration in ticks at {@code resolution} (ticks per quarter note). */
+    public int getDuration(int resolution) {
+        return (int) (this.multiplier * resolution);
+    }
+
     static long getDuration(RhythmType enumVal) {
         setDurations();
         return enumVal.duration;
@@ -126,5 +131,23 @@ public enum RhythmType {
 
     }
 
+    /**
+     * Same as {@link #getEnumType(long)}, but at the passed resolution rather than {@link Application#resolution}.
+     * Prefer {@link RhythmTable} where many durations are classified.
+     */
+    public static RhythmType getEnumType(long duration, int resolution) {
+
+        RhythmType[] arr = RhythmType.values();
+        int i = 0;
+        RhythmType currType = WHOLE;
+
+        while (i < arr.length && duration < currType.getDuration(resolution)) {
+            currType = arr[i];
+            i++;
+        }
+
+        return currType;
+    }
+
 
 }
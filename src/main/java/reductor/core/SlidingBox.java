@@ -0,0 +1,208 @@
+package reductor.core;
+
+
+import java.util.Arrays;
+
+
+/**
+ * A window of consecutive Columns that slides across a Piece, keeping the window's floor, ceiling, note count and
+ * pitch-class union up to date as Columns enter on the right and leave on the left.
+ * <p>
+ * Unlike a {@link Box}, which scans every Column it holds when it is built, each step here costs amortized O(1): the
+ * floor and ceiling come from monotonic deques of Column indexes (the front of each is the window's extreme; a
+ * Column is dropped from the back once a later Column makes it unreachable), and pitch classes are counted per
+ * class, so a class leaves the union only when the last Column sounding it does.
+ * <p>
+ * Windows may only slide forwards (both edges non-decreasing); moving either edge backwards rebuilds the window
+ * from its new left edge. Reads {@link PieceFeatures}, so it sees the Columns as they were when those were built.
+ */
+public class SlidingBox {
+
+    private final PieceFeatures features;
+
+    // Column indexes with increasing lows (floor) and decreasing highs (ceiling); every index enters each at most
+    // once per pass, so they never wrap
+    private final int[] floors;
+    private final int[] ceilings;
+    private int floorHead, floorTail;
+    private int ceilingHead, ceilingTail;
+
+    private final int[] pitchClassCounts = new int[12];
+    private long noteCount;
+
+    // The window is Columns [first, last)
+    private int first;
+    private int last;
+
+
+    public SlidingBox(PieceFeatures features) {
+        if (features == null) { throw new NullPointerException("features can't be null"); }
+        this.features = features;
+        this.floors = new int[features.size()];
+        this.ceilings = new int[features.size()];
+    }
+
+    public SlidingBox(Piece piece) {
+        this(piece.getFeatures());
+    }
+
+
+    //region sliding
+
+    /**
+     * Adds the next Column on the right.
+     *
+     * @return False if there is none.
+     */
+    public boolean extend() {
+
+        if (this.last == this.features.size()) { return false; }
+
+        int index = this.last++;
+        if (this.features.getCount(index) == 0) { return true; }
+
+        int low = this.features.getLow(index);
+        while (this.floorHead < this.floorTail  &&  low <= this.features.getLow(this.floors[this.floorTail - 1])) {
+            this.floorTail--;
+        }
+        this.floors[this.floorTail++] = index;
+
+        int high = this.features.getHigh(index);
+        while (this.ceilingHead < this.ceilingTail
+                &&  this.features.getHigh(this.ceilings[this.ceilingTail - 1]) <= high) {
+            this.ceilingTail--;
+        }
+        this.ceilings[this.ceilingTail++] = index;
+
+        this.noteCount += this.features.getCount(index);
+        for (int mask = this.features.getPitchClassMask(index); mask != 0; mask &= mask - 1) {
+            this.pitchClassCounts[Integer.numberOfTrailingZeros(mask)]++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Drops the leftmost Column.
+     *
+     * @return False if the window is empty.
+     */
+    public boolean shrink() {
+
+        if (this.first == this.last) { return false; }
+
+        int index = this.first++;
+        if (this.features.getCount(index) == 0) { return true; }
+
+        if (this.floors[this.floorHead] == index) { this.floorHead++; }
+        if (this.ceilings[this.ceilingHead] == index) { this.ceilingHead++; }
+
+        this.noteCount -= this.features.getCount(index);
+        for (int mask = this.features.getPitchClassMask(index); mask != 0; mask &= mask - 1) {
+            this.pitchClassCounts[Integer.numberOfTrailingZeros(mask)]--;
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves the window to Columns [first, last).
+     */
+    public void slideTo(int first, int last) {
+
+        if (first < 0  ||  last < first  ||  this.features.size() < last) {
+            throw new IndexOutOfBoundsException("can't slide to [" + first + ", " + last + ")");
+        }
+
+        if (first < this.first  ||  last < this.last  ||  this.last <= first) { reset(first); }
+
+        while (this.last < last) { extend(); }
+        while (this.first < first) { shrink(); }
+    }
+
+    /**
+     * Moves the window to the Columns that overlap [from, to] (ticks, inclusive).
+     */
+    public void slideToTicks(int from, int to) {
+
+        if (to < from) { throw new IllegalArgumentException("can't slide to ticks [" + from + ", " + to + "]"); }
+
+        int size = this.features.size();
+        if (size == 0) { return; }
+        if (to < this.features.getStart(Math.max(0, this.last - 1))  ||  from < firstStart()) {
+            reset(Math.max(0, this.features.indexAt(from)));
+        }
+
+        while (this.last < size  &&  this.features.getStart(this.last) <= to) { extend(); }
+        while (this.first < this.last  &&  this.features.getStop(this.first) < from) { shrink(); }
+    }
+
+    /**
+     * Moves the window to the Columns that overlap the {@code length} ticks ending at {@code tick}, inclusive (e.g.
+     * "the last two beats").
+     */
+    public void slideToEndAt(int tick, int length) {
+        if (length <= 0) { throw new IllegalArgumentException("length must be positive"); }
+        slideToTicks(tick - length + 1, tick);
+    }
+
+    private int firstStart() {
+        return this.first < this.features.size() ? this.features.getStart(this.first) : Integer.MAX_VALUE;
+    }
+
+    private void reset(int first) {
+        this.first = first;
+        this.last = first;
+        this.floorHead = this.floorTail = 0;
+        this.ceilingHead = this.ceilingTail = 0;
+        this.noteCount = 0;
+        Arrays.fill(this.pitchClassCounts, 0);
+    }
+
+    //endregion
+
+
+    //region getters
+
+    /** Returns the index of the leftmost Column in the window. */
+    public int getFirst() { return this.first; }
+
+    /** Returns the index just past the rightmost Column in the window. */
+    public int getLast() { return this.last; }
+
+    /** Returns the number of Columns in the window. */
+    public int size() { return this.last - this.first; }
+
+    public boolean isEmpty() { return this.first == this.last; }
+
+    /** Returns the lowest pitch in the window, or -1 if it has no notes. */
+    public int getFloor() {
+        return this.floorHead < this.floorTail ? this.features.getLow(this.floors[this.floorHead]) : -1;
+    }
+
+    /** Returns the highest pitch in the window, or -1 if it has no notes. */
+    public int getCeiling() {
+        return this.ceilingHead < this.ceilingTail ? this.features.getHigh(this.ceilings[this.ceilingHead]) : -1;
+    }
+
+    /** Returns the notes in the window, counting a held note once per Column it sounds in. */
+    public long getNoteCount() { return this.noteCount; }
+
+    /** Returns the mean notes per Column, or 0 if the window is empty. */
+    public double getDensity() {
+        return isEmpty() ? 0 : this.noteCount / (double) size();
+    }
+
+    /** Returns the union of the window's pitch classes (bit {@code i} for pitch class {@code i}). */
+    public int getPitchClassMask() {
+        int mask = 0;
+        for (int i = 0; i < 12; i++) {
+            if (this.pitchClassCounts[i] != 0) { mask |= 1 << i; }
+        }
+        return mask;
+    }
+
+    //endregion
+
+
+}
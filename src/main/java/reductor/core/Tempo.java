@@ -1,15 +1,33 @@
 package reductor.core;
 
-public record Tempo(int bpm, Range range) implements Ranged {
+/**
+ * @param bpm The tempo in (rounded) beats per minute, for display.
+ * @param range The range over which this tempo is in effect.
+ * @param microsPerQuarter The exact tempo, as MIDI gives it; this, not {@code bpm}, is what {@link TempoMap} uses.
+ */
+public record Tempo(int bpm, Range range, int microsPerQuarter) implements Ranged {
+
+    public static final int MICROS_PER_MINUTE = 60_000_000;
+
+    public Tempo(int bpm, Range range) {
+        this(bpm, range, toMicrosPerQuarter(bpm));
+    }
 
     public Tempo(Tempo other) {
-        this(other.bpm, new Range(other.range));
+        this(other.bpm, other.range, other.microsPerQuarter);
     }
 
     public int getBpm() { return this.bpm; }
 
+    public int getMicrosPerQuarter() { return this.microsPerQuarter; }
+
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
+
+    private static int toMicrosPerQuarter(int bpm) {
+        if (bpm <= 0) { throw new IllegalArgumentException("bpm must be positive, got " + bpm); }
+        return MICROS_PER_MINUTE / bpm;
+    }
 
     @Override
     public String toString() { return "%s: %s bpm".formatted(range, bpm); }
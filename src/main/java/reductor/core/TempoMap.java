@@ -0,0 +1,184 @@
+package reductor.core;
+
+
+import reductor.util.Timeline;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Converts between ticks and wall-clock time (microseconds from tick 0) under a piece's tempos.
+ * <p>
+ * Each tempo starts a segment in which every tick lasts {@code microsPerQuarter / resolution} microseconds; a tempo
+ * stays in effect until the next one starts, and before the first one (or if there are none) the MIDI default of
+ * 120 bpm applies. The time at which every segment starts is prefix-summed on construction, so a conversion is a
+ * binary search over the segments plus one multiplication: O(log k) for k tempos.
+ * <p>
+ * Times are kept exactly, in units of {@code 1 / resolution} microseconds, and only rounded (down) on the way out,
+ * so nothing drifts over long pieces. The exact {@link Tempo#microsPerQuarter()} is used, never the rounded bpm.
+ */
+public class TempoMap {
+
+    /** Microseconds per quarter note before the first tempo: 120 bpm, per the MIDI spec. */
+    public static final int DEFAULT_MICROS_PER_QUARTER = 500_000;
+
+    private final int resolution;
+
+    // Segment i starts at starts[i], at scaledOffsets[i] / resolution microseconds; sorted, strictly increasing
+    private final int[] starts;
+    private final long[] scaledOffsets;
+    private final int[] microsPerQuarter;
+
+
+    public TempoMap(Timeline<Tempo> tempos, int resolution) {
+
+        if (tempos == null) { throw new NullPointerException("tempos can't be null"); }
+        if (resolution < 1) { throw new IllegalArgumentException("resolution must be positive"); }
+        this.resolution = resolution;
+
+        boolean defaultFirst = tempos.isEmpty()  ||  0 < tempos.getStart(0);
+        int size = tempos.size() + (defaultFirst ? 1 : 0);
+        this.starts = new int[size];
+        this.scaledOffsets = new long[size];
+        this.microsPerQuarter = new int[size];
+
+        int i = 0;
+        if (defaultFirst) { this.microsPerQuarter[i++] = DEFAULT_MICROS_PER_QUARTER; }
+        for (int t = 0; t < tempos.size(); t++, i++) {
+            Tempo tempo = tempos.get(t);
+            if (tempo.microsPerQuarter() <= 0) { throw new IllegalArgumentException("invalid tempo: " + tempo); }
+            this.starts[i] = tempos.getStart(t);
+            this.microsPerQuarter[i] = tempo.microsPerQuarter();
+            if (0 < i) {
+                long ticks = this.starts[i] - this.starts[i - 1];
+                this.scaledOffsets[i] = this.scaledOffsets[i - 1] + ticks * this.microsPerQuarter[i - 1];
+            }
+        }
+    }
+
+    public TempoMap(List<Tempo> tempos, int resolution) {
+        this(new Timeline<>(tempos), resolution);
+    }
+
+
+    //region conversions
+
+    /**
+     * @return The time at which {@code tick} starts, in microseconds (rounded down).
+     */
+    public long tickToMicros(int tick) {
+        if (tick < 0) { throw new IllegalArgumentException("tick can't be negative"); }
+        return scaledMicros(tick, segmentOfTick(tick)) / this.resolution;
+    }
+
+    /**
+     * @return The tick sounding at {@code micros}, i.e. the last tick that starts at or before it. The inverse of
+     *         {@link #tickToMicros}: {@code microsToTick(tickToMicros(t)) == t} for every tick that lasts at least a
+     *         microsecond.
+     */
+    public int microsToTick(long micros) {
+        if (micros < 0) { throw new IllegalArgumentException("micros can't be negative"); }
+        // The last tick t with floor(scaled(t) / resolution) <= micros, i.e. scaled(t) < (micros + 1) * resolution
+        long target = (micros + 1) * this.resolution - 1;
+        return tickAt(target, segmentOfScaled(target));
+    }
+
+    /**
+     * @return How long {@code ranged} lasts, in microseconds; from the start of its first tick to the end of its
+     *         last.
+     */
+    public long durationMicros(Ranged ranged) {
+        Range range = ranged.getRange();
+        return tickToMicros(range.getHigh() + 1) - tickToMicros(range.getLow());
+    }
+
+    /** Returns the exact tempo in effect at {@code tick}. */
+    public int getMicrosPerQuarterAt(int tick) {
+        if (tick < 0) { throw new IllegalArgumentException("tick can't be negative"); }
+        return this.microsPerQuarter[segmentOfTick(tick)];
+    }
+
+    //endregion
+
+
+    //region batch conversions
+
+    /*
+     Both batch conversions remember the segment of the previous element and walk forward from it, so a sorted
+     array (note starts, column starts) converts in O(n + k) rather than O(n log k); an element earlier than the one
+     before it just costs a binary search.
+    */
+
+    /** Converts every tick in {@code ticks}, as by {@link #tickToMicros}. */
+    public long[] ticksToMicros(int[] ticks) {
+        long[] out = new long[ticks.length];
+        int segment = 0;
+        for (int i = 0; i < ticks.length; i++) {
+            int tick = ticks[i];
+            if (tick < 0) { throw new IllegalArgumentException("tick can't be negative"); }
+            if (tick < this.starts[segment]) {
+                segment = segmentOfTick(tick);
+            } else {
+                while (segment + 1 < this.starts.length  &&  this.starts[segment + 1] <= tick) { segment++; }
+            }
+            out[i] = scaledMicros(tick, segment) / this.resolution;
+        }
+        return out;
+    }
+
+    /** Converts every time in {@code micros}, as by {@link #microsToTick}. */
+    public int[] microsToTicks(long[] micros) {
+        int[] out = new int[micros.length];
+        int segment = 0;
+        for (int i = 0; i < micros.length; i++) {
+            if (micros[i] < 0) { throw new IllegalArgumentException("micros can't be negative"); }
+            long target = (micros[i] + 1) * this.resolution - 1;
+            if (target < this.scaledOffsets[segment]) {
+                segment = segmentOfScaled(target);
+            } else {
+                while (segment + 1 < this.starts.length  &&  this.scaledOffsets[segment + 1] <= target) {
+                    segment++;
+                }
+            }
+            out[i] = tickAt(target, segment);
+        }
+        return out;
+    }
+
+    //endregion
+
+
+    //region helpers
+
+    // The time at which tick starts, in 1/resolution microseconds
+    private long scaledMicros(int tick, int segment) {
+        return this.scaledOffsets[segment] + (long) (tick - this.starts[segment]) * this.microsPerQuarter[segment];
+    }
+
+    // The last tick of segment that starts at or before scaled (1/resolution microseconds)
+    private int tickAt(long scaled, int segment) {
+        long ticks = (scaled - this.scaledOffsets[segment]) / this.microsPerQuarter[segment];
+        return Math.toIntExact(this.starts[segment] + ticks);
+    }
+
+    private int segmentOfTick(int tick) {
+        int index = Arrays.binarySearch(this.starts, tick);
+        return index >= 0 ? index : -(index + 1) - 1;
+    }
+
+    private int segmentOfScaled(long scaled) {
+        int index = Arrays.binarySearch(this.scaledOffsets, scaled);
+        return index >= 0 ? index : -(index + 1) - 1;
+    }
+
+    //endregion
+
+
+    public int getResolution() { return this.resolution; }
+
+    /** Returns the number of tempo segments, counting the default one if it applies. */
+    public int size() { return this.starts.length; }
+
+
+}
@@ -10,7 +10,7 @@ public record TimeSignature(int numerator, int denominator, Range range)
     }
 
     @Override
-    public Range getRange() { return new Range(this.range); }
+    public Range getRange() { return this.range; }
 
     @Override
     public int compareTo(TimeSignature o) {
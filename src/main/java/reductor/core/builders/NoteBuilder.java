@@ -12,6 +12,8 @@ public class NoteBuilder {
     private String instrument = null;
     private Boolean isHeld = null;
     private Hand hand = null;
+    // Ticks per quarter; what the rhythm is classified against (defaults to Application.resolution)
+    private Integer resolution = null;
 
     private Range range = null;
     // If the user does not supply range but adds these
@@ -63,10 +65,10 @@ public class NoteBuilder {
         return this;
     }
     public NoteBuilder pitch(int v) {
-        return this.pitch(new Pitch(v));
+        return this.pitch(Pitch.of(v));
     }
     public NoteBuilder pitch(String v) {
-        return this.pitch(new Pitch(v));
+        return this.pitch(Pitch.of(v));
     }
 
     public NoteBuilder instrument(String instrument) {
@@ -84,6 +86,11 @@ public class NoteBuilder {
         return this;
     }
 
+    public NoteBuilder resolution(int resolution) {
+        this.resolution = resolution;
+        return this;
+    }
+
     //endregion
 
 
@@ -109,9 +116,11 @@ public class NoteBuilder {
          logic later. This is
          easier, and harmless to re-assign even if rhythm is already not null.
         */
-        this.rhythm = Rhythm.fromRange(range);
+        this.rhythm = this.resolution == null
+                ? Rhythm.fromRange(range)
+                : Rhythm.fromRange(range, this.resolution);
 
-        if (this.pitch == null) { this.pitch = new Pitch("C4"); }
+        if (this.pitch == null) { this.pitch = Pitch.of("C4"); }
         if (this.isHeld == null) { this.isHeld = false; }
         if (this.instrument == null) { this.instrument = ""; }
         if (this.hand == null) { this.hand = Hand.NONE; }
@@ -135,7 +144,7 @@ public class NoteBuilder {
 
         Range r = other.getRange();
 
-        Range range = r != null ? new Range(other.getRange()) : null;
+        Range range = r;
         Integer low = r != null ? other.getRange().getLow() : null;
         Integer high = r != null ? other.getRange().getHigh() : null;
 
@@ -171,7 +180,7 @@ public class NoteBuilder {
      * {@link PitchUtil}
      */
     public static NoteBuilder jump(Note n, int intervallicDistance) {
-        Pitch pitch = new Pitch(n.getPitch().toInt() + intervallicDistance);
+        Pitch pitch = Pitch.of(n.getPitch().toInt() + intervallicDistance);
         return NoteBuilder.from(n).pitch(pitch);
     }
 
@@ -3,12 +3,17 @@ package reductor.core.builders;
 import reductor.app.Application;
 import reductor.core.*;
 import reductor.util.IntervalTree;
+import reductor.util.NoteIndex;
+import reductor.util.Timeline;
 import reductor.util.TimeUtil;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
 
 
 @SuppressWarnings("FieldMayBeFinal")
@@ -20,10 +25,21 @@ public class PieceBuilder {
     private List<KeySignature> keySigsList;
     private List<Tempo> temposList;
 
+    // Given as already-built Timelines (see timeSignature(Timeline) etc.); null if not
+    private Timeline<TimeSignature> timeSigsTimeline;
+    private Timeline<KeySignature> keySigsTimeline;
+    private Timeline<Tempo> temposTimeline;
+
     private List<Measure> measuresList;
 
     private List<Note> notesList;
 
+    private boolean sweepLine;
+
+    private ForkJoinPool pool;
+
+    private boolean lazy;
+
 
     public PieceBuilder(int resolution) {
         if (resolution < 1 || 32767 < resolution) {
@@ -69,6 +85,12 @@ public class PieceBuilder {
         v.forEach(this::timeSignature);
         return this;
     }
+    /** Takes {@code v} as is, rather than building another Timeline from its elements. */
+    public PieceBuilder timeSignature(Timeline<TimeSignature> v) {
+        if (this.timeSigsTimeline != null) { return timeSignature(v.toList()); }
+        this.timeSigsTimeline = v;
+        return this;
+    }
 
     public PieceBuilder keySignature(KeySignature v) {
         this.keySigsList.add(v);
@@ -78,6 +100,12 @@ public class PieceBuilder {
         v.forEach(this::keySignature);
         return this;
     }
+    /** Takes {@code v} as is, rather than building another Timeline from its elements. */
+    public PieceBuilder keySignature(Timeline<KeySignature> v) {
+        if (this.keySigsTimeline != null) { return keySignature(v.toList()); }
+        this.keySigsTimeline = v;
+        return this;
+    }
 
     public PieceBuilder tempo(Tempo v) {
         this.temposList.add(v);
@@ -87,6 +115,41 @@ public class PieceBuilder {
         v.forEach(this::tempo);
         return this;
     }
+    /** Takes {@code v} as is, rather than building another Timeline from its elements. */
+    public PieceBuilder tempo(Timeline<Tempo> v) {
+        if (this.temposTimeline != null) { return tempo(v.toList()); }
+        this.temposTimeline = v;
+        return this;
+    }
+
+    /**
+     * Assembles Columns and Measures in a single left-to-right sweep over the sorted notes, rather than by querying
+     * the note and column trees. The Piece is the same either way.
+     */
+    public PieceBuilder sweepLine(boolean v) {
+        this.sweepLine = v;
+        return this;
+    }
+
+    /**
+     * Sorts the notes, builds the Column and Measure trees, and constructs the Columns and Measures themselves, in
+     * {@code v}; null (the default) builds everything on the calling thread. The Piece is the same either way.
+     */
+    public PieceBuilder pool(ForkJoinPool v) {
+        this.pool = v;
+        return this;
+    }
+
+    /**
+     * Builds only the note index up front; each Column and Measure is built the first time it is asked for (see
+     * {@link Piece#getColumns(Range)} and {@link Piece#getMeasures(Range)}), and then kept. Whatever is built is the
+     * same as in an eager build. Missing signatures are then only reported when a Measure that needs them is built.
+     * Takes precedence over {@link #sweepLine}; a pool is still used for the note index.
+     */
+    public PieceBuilder lazy(boolean v) {
+        this.lazy = v;
+        return this;
+    }
 
     //endregion
 
@@ -95,35 +158,54 @@ public class PieceBuilder {
 
     private static class PieceAssembler {
 
+        /** Columns or Measures at or below this count are constructed on the calling thread, even with a pool. */
+        static final int PARALLEL_THRESHOLD = 256;
+
         private int resolution;
 
+        private ForkJoinPool pool;
+
         private Range range;
 
-        private IntervalTree<Note> notes;
+        // The piece's notes: a NoteTable in range order, and the index over its rows
+        private NoteIndex notes;
         private IntervalTree<Measure> measures;
         private IntervalTree<Column> columns;
 
-        private IntervalTree<TimeSignature> timeSigs;
-        private IntervalTree<KeySignature> keySigs;
-        private IntervalTree<Tempo> tempos;
+        private Timeline<TimeSignature> timeSigs;
+        private Timeline<KeySignature> keySigs;
+        private Timeline<Tempo> tempos;
 
+        private PieceMaterializer materializer;
 
-        private PieceAssembler(int resolution, List<Note> notes, List<Measure> measures, List<TimeSignature> timeSigs,
-                               List<KeySignature> keySigs, List<Tempo> tempos) {
+
+        private PieceAssembler(int resolution, List<Note> notes, List<Measure> measures,
+                               Timeline<TimeSignature> timeSigs, Timeline<KeySignature> keySigs,
+                               Timeline<Tempo> tempos, boolean sweepLine, ForkJoinPool pool, boolean lazy) {
             this.resolution = resolution;
-            this.notes = new IntervalTree<>(notes);
+            this.pool = pool;
+            this.notes = NoteIndex.of(notes, resolution, pool);
             this.range = findPieceRange();
 
             if (timeSigs.isEmpty()) {
-                timeSigs.add(new TimeSignature(4, 4, range));
+                timeSigs = new Timeline<>(List.of(new TimeSignature(4, 4, range)));
                 System.err.println("constructing piece without timeSig");
             }
 
-            this.timeSigs = new IntervalTree<>(timeSigs);
-            this.keySigs = new IntervalTree<>(keySigs);
-            this.tempos = new IntervalTree<>(tempos);
-            this.columns = assembleColumns();
-            this.measures = assembleMeasures();
+            this.timeSigs = timeSigs;
+            this.keySigs = keySigs;
+            this.tempos = tempos;
+            if (lazy) {
+                this.materializer = new PieceMaterializer(this.notes, computeColumnStarts(), computeMeasureStarts(),
+                        this.range.getHigh(), this.timeSigs, this.keySigs, this.tempos);
+            } else if (sweepLine) {
+                List<Column> columns = sweepColumns();
+                this.columns = new IntervalTree<>(columns, pool);
+                this.measures = new IntervalTree<>(sweepMeasures(columns), pool);
+            } else {
+                this.columns = assembleColumns();
+                this.measures = assembleMeasures();
+            }
         }
 
         private Range findPieceRange() {
@@ -133,50 +215,195 @@ public class PieceBuilder {
         }
 
         public TimeSignature getTimeSigAt(int point) {
-            return this.timeSigs.query(point).getFirst();
+            return findAt(this.timeSigs, point);
         }
         public KeySignature getKeySigAt(int point) {
-            return this.keySigs.query(point).getFirst();
+            return findAt(this.keySigs, point);
         }
         public Tempo getTempoAt(int point) {
-            return this.tempos.query(point).getFirst();
+            return findAt(this.tempos, point);
+        }
+        private static <E extends Ranged> E findAt(Timeline<E> timeline, int point) {
+            return found(timeline.at(point), point);
+        }
+        private static <E extends Ranged> E found(E match, int point) {
+            if (match == null) { throw new NoSuchElementException("nothing found at tick " + point); }
+            return match;
         }
 
         private IntervalTree<Column> assembleColumns() {
-            List<Column> columns = new ArrayList<>();
-            for (Range range : computeColumnRanges()) {
-                List<Note> matches = this.notes.query(range);
-                columns.add( new Column(matches, range) );
-            }
-            return new IntervalTree<>(columns);
+            List<Range> ranges = computeColumnRanges();
+            NoteTable table = this.notes.getTable();
+            // Each Column queries the index for its own rows, so the queries run wherever the Columns are built
+            List<Column> columns = construct(ranges.size(),
+                    i -> new Column(table, this.notes.rowsOverlapping(ranges.get(i)), ranges.get(i)));
+            return new IntervalTree<>(columns, this.pool);
         }
         private List<Range> computeColumnRanges() {
-            List<Range> list = this.notes.toListRangesOnly();
-            Set<Integer> set = new HashSet<>();
-            for (Range range : list) {
-                set.add(range.getLow());
-            }
-            return RangeUtil.fromStartTicks(set, this.range.getHigh());
+            return RangeUtil.fromStartTicks(computeColumnStarts(), this.range.getHigh()).toList();
         }
 
         private IntervalTree<Measure> assembleMeasures() {
-            List<Measure> measures = new ArrayList<>();
-            for (Range range : computeMeasureRanges(this.notes, this.range.getHigh())) {
-                List<Column> matches = this.columns.query(range);
-                measures.add(new Measure(matches, range, getTimeSigAt(range.getLow()),
-                        getKeySigAt(range.getLow()), getTempoAt(range.getLow()))
-                );
+            List<Range> ranges = computeMeasureRanges();
+            List<List<Column>> matches = this.columns.queryAll(ranges);
+            List<Measure> measures = construct(ranges.size(), i -> {
+                Range range = ranges.get(i);
+                return new Measure(matches.get(i), range, getTimeSigAt(range.getLow()),
+                        getKeySigAt(range.getLow()), getTempoAt(range.getLow()));
+            });
+            return new IntervalTree<>(measures, this.pool);
+        }
+        private List<Range> computeMeasureRanges() {
+            return RangeUtil.fromStartTicks(computeMeasureStarts(), this.range.getHigh()).toList();
+        }
+
+        // The boundaries alone, for lazy pieces (and eager ones too): one int each, rather than a Range
+
+        private int[] computeColumnStarts() {
+            NoteTable table = this.notes.getTable();
+            int[] starts = new int[table.size()];
+            int size = 0;
+            for (int row = 0; row < table.size(); row++) {
+                // Sorted by start already, so duplicates are adjacent
+                int start = table.getStart(row);
+                if (size == 0  ||  starts[size - 1] != start) { starts[size++] = start; }
             }
-            return new IntervalTree<>(measures);
+            return Arrays.copyOf(starts, size);
         }
-        private List<Range> computeMeasureRanges(IntervalTree<Note> notes, int lastTick) {
-            Set<Integer> startTicks = new HashSet<>();
+
+        private int[] computeMeasureStarts() {
+            int[] starts = new int[16];
+            int size = 0;
+            Timeline<TimeSignature>.Cursor timeSigAt = this.timeSigs.cursor();
             int marker = this.range.getLow();
             while (marker < this.range.getHigh()) {
-                startTicks.add(marker);
-                marker += TimeUtil.calculateMeasureDuration(this.resolution, getTimeSigAt(marker));
+                if (size == starts.length) { starts = Arrays.copyOf(starts, size * 2); }
+                starts[size++] = marker;
+                marker += TimeUtil.calculateMeasureDuration(this.resolution, found(timeSigAt.at(marker), marker));
+            }
+            return Arrays.copyOf(starts, size);
+        }
+
+        /*
+         The sweep-line alternative to assembleColumns and assembleMeasures. The note table's rows are already
+         sorted by range, so walking them once gives every Column boundary (each distinct start tick) without a set
+         or a second sort. An active list of rows that have started but not yet ended gives each Column's rows, in
+         ascending order (as the index query returns them), so Columns come out identical. The Columns are then in
+         order too, so one pointer over them fills the Measures.
+        */
+        private List<Column> sweepColumns() {
+
+            NoteTable table = this.notes.getTable();
+            int size = table.size();
+            List<Range> ranges = new ArrayList<>();
+            List<int[]> matches = new ArrayList<>();
+            int[] active = new int[16];
+            int activeSize = 0;
+
+            int next = 0;
+            while (next < size) {
+
+                // Admit everything starting at this Column's start; the next distinct start ends it
+                int low = table.getStart(next);
+                while (next < size  &&  table.getStart(next) == low) {
+                    if (activeSize == active.length) { active = Arrays.copyOf(active, activeSize * 2); }
+                    active[activeSize++] = next++;
+                }
+                int high = (next < size ? table.getStart(next) : this.range.getHigh()) - 1;
+
+                // Drop anything that ended before this Column; everything left sounds in it
+                int kept = 0;
+                for (int i = 0; i < activeSize; i++) {
+                    if (table.getStop(active[i]) < low) { continue; }
+                    active[kept++] = active[i];
+                }
+                activeSize = kept;
+
+                ranges.add(new Range(low, high));
+                matches.add(Arrays.copyOf(active, activeSize));
+            }
+
+            return construct(ranges.size(), i -> new Column(table, matches.get(i), ranges.get(i)));
+        }
+
+        private List<Measure> sweepMeasures(List<Column> columns) {
+
+            List<Range> ranges = new ArrayList<>();
+            List<List<Column>> matches = new ArrayList<>();
+            int lastTick = this.range.getHigh();
+            int first = 0;
+
+            Timeline<TimeSignature>.Cursor timeSigAt = this.timeSigs.cursor();
+            int marker = this.range.getLow();
+            while (marker < lastTick) {
+
+                TimeSignature timeSig = found(timeSigAt.at(marker), marker);
+                int next = marker + TimeUtil.calculateMeasureDuration(this.resolution, timeSig);
+                Range range = new Range(marker, Math.min(next, lastTick) - 1);
+
+                // Columns never overlap, but one may cross a barline, in which case both Measures get it
+                while (first < columns.size()  &&  columns.get(first).getRange().getHigh() < range.getLow()) {
+                    first++;
+                }
+                int last = first;
+                while (last < columns.size()  &&  columns.get(last).getRange().getLow() <= range.getHigh()) {
+                    last++;
+                }
+
+                ranges.add(range);
+                matches.add(columns.subList(first, last));
+                marker = next;
+            }
+
+            return construct(ranges.size(), i -> {
+                int low = ranges.get(i).getLow();
+                return new Measure(matches.get(i), ranges.get(i), getTimeSigAt(low), getKeySigAt(low),
+                        getTempoAt(low));
+            });
+        }
+
+        /*
+         Every Column depends only on its own notes and range, and every Measure only on its own Columns and the
+         signatures at its start (the trees are only read), so each is constructed independently. With a pool,
+         [0, size) is halved into fork-join tasks; either way element i is written to index i, so the result (and
+         anything later derived from its order, such as measure numbers) does not depend on scheduling.
+        */
+        @SuppressWarnings("unchecked")
+        private <E> List<E> construct(int size, IntFunction<E> factory) {
+            Object[] out = new Object[size];
+            Construct construct = new Construct(out, factory, 0, size);
+            if (this.pool != null  &&  PARALLEL_THRESHOLD < size) {
+                this.pool.invoke(construct);
+            } else {
+                construct.compute();
+            }
+            return (List<E>) Arrays.asList(out);
+        }
+
+        private static class Construct extends RecursiveAction {
+
+            private final Object[] out;
+            private final IntFunction<?> factory;
+            private final int first;
+            private final int last;
+
+            Construct(Object[] out, IntFunction<?> factory, int first, int last) {
+                this.out = out;
+                this.factory = factory;
+                this.first = first;
+                this.last = last;
+            }
+
+            @Override
+            protected void compute() {
+                if (this.last - this.first <= PARALLEL_THRESHOLD) {
+                    for (int i = this.first; i < this.last; i++) { this.out[i] = this.factory.apply(i); }
+                    return;
+                }
+                int middle = (this.first + this.last) >>> 1;
+                invokeAll(new Construct(this.out, this.factory, this.first, middle),
+                        new Construct(this.out, this.factory, middle, this.last));
             }
-            return RangeUtil.fromStartTicks(startTicks, this.range.getHigh());
         }
 
         private static class MeasureAssigner {
@@ -257,14 +484,31 @@ public class PieceBuilder {
     public Piece build() {
 
         var assembler = new PieceAssembler(this.resolution, this.notesList, this.measuresList,
-                this.timeSigsList, this.keySigsList, this.temposList);
+                timeline(this.timeSigsTimeline, this.timeSigsList), timeline(this.keySigsTimeline, this.keySigsList),
+                timeline(this.temposTimeline, this.temposList), this.sweepLine, this.pool, this.lazy);
+
+        if (assembler.materializer != null) {
+            return new Piece(
+                    assembler.resolution, assembler.range, assembler.notes, assembler.timeSigs,
+                    assembler.keySigs, assembler.tempos, assembler.materializer, this.pool
+            );
+        }
 
         return new Piece(
                 assembler.resolution, assembler.range, assembler.notes, assembler.timeSigs,
-                assembler.keySigs, assembler.tempos, assembler.measures, assembler.columns
+                assembler.keySigs, assembler.tempos, assembler.measures, assembler.columns, this.pool
         );
     }
 
+    // A given Timeline is used as is, unless single elements were added too
+    private static <E extends Ranged> Timeline<E> timeline(Timeline<E> given, List<E> added) {
+        if (given == null) { return new Timeline<>(added); }
+        if (added.isEmpty()) { return given; }
+        List<E> all = new ArrayList<>(given.toList());
+        all.addAll(added);
+        return new Timeline<>(all);
+    }
+
     //endregion
 
     public static PieceBuilder from(Range range) {
@@ -0,0 +1,120 @@
+package reductor.dev;
+
+
+import reductor.app.Paths;
+import reductor.core.KeySignature;
+import reductor.core.Note;
+import reductor.core.NoteTable;
+import reductor.core.Piece;
+import reductor.core.Range;
+import reductor.core.Tempo;
+import reductor.core.TimeSignature;
+import reductor.core.builders.NoteBuilder;
+import reductor.core.builders.PieceBuilder;
+import reductor.midi.MidiReader;
+import reductor.midi.importer.MidiImporter;
+import reductor.midi.parser.MidiContainer;
+
+import javax.sound.midi.InvalidMidiDataException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * Heap per note for the MIDI files under {@code assets/pieces}, held as a {@code List<Note>} vs. as a
+ * {@link NoteTable}, and then as a whole {@link Piece} (eager, and lazy), as retained right after it is built.
+ * <p>
+ * The pieces are small, so each one's notes are tiled end-to-end until there are about {@link #TARGET_NOTES} of
+ * them; otherwise GC noise swamps the difference. Numbers are retained heap after a full GC, so they are rough.
+ */
+public class NoteTableHeapReport {
+
+    private static final int TARGET_NOTES = 500_000;
+
+    private NoteTableHeapReport() {}
+
+
+    static void main() throws IOException, InvalidMidiDataException {
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(Paths.PIECES_SOURCE)) {
+            files = walk.filter(p -> p.toString().endsWith(".mid")).sorted().toList();
+        }
+
+        System.out.printf("%-28s %10s %16s %16s %16s %16s %16s%n",
+                "piece", "notes", "List<Note> B/n", "NoteTable B/n", "(arrays) B/n", "Piece B/n", "lazy Piece B/n");
+
+        for (Path file : files) {
+            MidiContainer mc = new MidiContainer(MidiReader.readInMidiFile(file));
+            List<Note> source = MidiImporter.toNotes(mc.getNoteOnEvents(), mc.getNoteOffEvents());
+            if (source.isEmpty()) { continue; }
+
+            long before = usedHeap();
+            List<Note> notes = tile(source);
+            long asNotes = usedHeap() - before;
+
+            before = usedHeap();
+            NoteTable table = new NoteTable(notes);
+            long asTable = usedHeap() - before;
+
+            // The tiles are garbage once the Piece is built, so only what the Piece keeps is counted
+            before = usedHeap();
+            Piece piece = piece(tile(source), mc.getResolution(), false);
+            long asPiece = usedHeap() - before;
+            Reference.reachabilityFence(piece);
+
+            before = usedHeap();
+            Piece lazy = piece(tile(source), mc.getResolution(), true);
+            long asLazyPiece = usedHeap() - before;
+            Reference.reachabilityFence(lazy);
+
+            int n = notes.size();
+            System.out.printf("%-28s %10d %16.1f %16.1f %16.1f %16.1f %16.1f%n",
+                    file.getFileName(), n, asNotes / (double) n, asTable / (double) n,
+                    table.getFootprintBytes() / (double) n, asPiece / (double) n, asLazyPiece / (double) n);
+        }
+    }
+
+    // In 4/4 and C major throughout; only the notes matter here
+    private static Piece piece(List<Note> notes, int resolution, boolean lazy) {
+        int lastTick = 0;
+        for (Note note : notes) { lastTick = Math.max(lastTick, note.stop()); }
+        Range whole = new Range(0, lastTick + 1);
+        return PieceBuilder.builder(resolution)
+                .note(notes)
+                .timeSignature(new TimeSignature(4, 4, whole))
+                .keySignature(new KeySignature("C", whole))
+                .tempo(new Tempo(120, whole))
+                .lazy(lazy)
+                .build();
+    }
+
+    // Repeats the piece back-to-back; each copy is a new set of Notes (and so Ranges and Rhythms), as an import is
+    private static List<Note> tile(List<Note> source) {
+        int lastTick = 0;
+        for (Note note : source) { lastTick = Math.max(lastTick, note.stop()); }
+
+        List<Note> out = new ArrayList<>(TARGET_NOTES + source.size());
+        for (int offset = 0; out.size() < TARGET_NOTES; offset += lastTick + 1) {
+            for (Note note : source) {
+                out.add(NoteBuilder.from(note).range(note.start() + offset, note.stop() + offset).build());
+            }
+        }
+        return out;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) { System.gc(); }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+
+}
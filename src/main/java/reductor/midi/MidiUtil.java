@@ -107,6 +107,19 @@ public class MidiUtil {
      */
     public static int convertMicrosecondsToBPM(byte[] data) {
 
+        final int microsecondsPerMinute = 60_000_000;
+
+        return microsecondsPerMinute / getMicrosecondsPerQuarterNote(data);
+    }
+
+    /**
+     * Reads the exact microseconds per quarter note of a set tempo message, without rounding to a bpm.
+     *
+     * @param data The tempo as a number split into three LTR bytes
+     * @return The tempo in microseconds per quarter note
+     */
+    public static int getMicrosecondsPerQuarterNote(byte[] data) {
+
         int byteIndex = 0;
         long microsecondsPerQuarterNote = 0;
 
@@ -116,11 +129,9 @@ public class MidiUtil {
             byteIndex++;
         }
 
-        final int microsecondsPerMinute = 60_000_000;
-
         // This cast is fine because none of the numbers here, if valid MIDI spec,
         //     will never get remotely near INTEGER_MAX.
-        return microsecondsPerMinute / (int) microsecondsPerQuarterNote;
+        return (int) microsecondsPerQuarterNote;
     }
 
     /**
@@ -189,7 +189,7 @@ public class SequenceBuilder {
         }
         // convenience
         public TrackBuilder noteOn(long tick, int channel, String pitch) {
-            return this.noteOn(tick, channel, new Pitch(pitch).value(), MEDIAN_VELOCITY);
+            return this.noteOn(tick, channel, Pitch.of(pitch).value(), MEDIAN_VELOCITY);
         }
 
         public TrackBuilder noteOff(long tick, int channel, int pitch, int velocity) {
@@ -198,7 +198,7 @@ public class SequenceBuilder {
         }
         // convenience
         public TrackBuilder noteOff(long tick, int channel, String pitch) {
-            return this.noteOn(tick, channel, new Pitch(pitch).value(), 0);
+            return this.noteOn(tick, channel, Pitch.of(pitch).value(), 0);
         }
 
         // convenience
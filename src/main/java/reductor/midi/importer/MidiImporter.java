@@ -13,6 +13,7 @@ import reductor.midi.parser.events.Event;
 import reductor.midi.validator.EventType;
 import reductor.midi.parser.events.NoteOffEvent;
 import reductor.midi.parser.events.NoteOnEvent;
+import reductor.util.Timeline;
 import reductor.core.*;
 
 import javax.sound.midi.*;
@@ -28,12 +29,12 @@ public class MidiImporter {
 
         int len = Math.toIntExact(mc.getSequenceLengthInTicks());
 
-        List<Note> notes = toNotes(mc.getNoteOnEvents(), mc.getNoteOffEvents());
-        List<TimeSignature> timeSigs = assignRanges(mc.getTimeSignatureEvents(),
+        List<Note> notes = toNotes(mc.getNoteOnEvents(), mc.getNoteOffEvents(), mc.getResolution());
+        Timeline<TimeSignature> timeSigs = assignRanges(mc.getTimeSignatureEvents(),
                 len, TimeSignature.class);
-        List<KeySignature> keySigs = assignRanges(mc.getKeySignatureEvents(),
+        Timeline<KeySignature> keySigs = assignRanges(mc.getKeySignatureEvents(),
                 len, KeySignature.class);
-        List<Tempo> tempos = assignRanges(mc.getSetTempoEvents(),
+        Timeline<Tempo> tempos = assignRanges(mc.getSetTempoEvents(),
                 len, Tempo.class);
 
         return PieceBuilder.builder(mc.getResolution())
@@ -44,8 +45,13 @@ public class MidiImporter {
                 .build();
     }
 
-    // See `docs/note-pairing-and-midi.md`
     public static List<Note> toNotes(List<NoteOnEvent> noteOnEvents, List<NoteOffEvent> noteOffEvents) {
+        return toNotes(noteOnEvents, noteOffEvents, Application.resolution);
+    }
+
+    // See `docs/note-pairing-and-midi.md`
+    public static List<Note> toNotes(List<NoteOnEvent> noteOnEvents, List<NoteOffEvent> noteOffEvents,
+                                     int resolution) {
 
         // Don't want to alter the original lists (by sorting them)
         // LinkedLists work fine for us here (need easy removals, but don't care about random access)
@@ -83,10 +89,11 @@ public class MidiImporter {
 
                         // Found a match/pair --> construct the `Note` object
                         Note note = NoteBuilder.builder()
-                                .pitch(new Pitch(on.getPitch()))
+                                .pitch(Pitch.of(on.getPitch()))
                                 .start(onInt)
                                 .stop(offInt)
                                 .instrument(on.getTrackName())
+                                .resolution(resolution)
                                 .build();
 
                         outNotes.add(note);
@@ -181,7 +188,11 @@ public class MidiImporter {
             throw new RuntimeException("toTempo was given an event that is not a set tempo event");
         }
 
-        return new Tempo(MidiUtil.convertMicrosecondsToBPM(data), range);
+        return new Tempo(
+                MidiUtil.convertMicrosecondsToBPM(data),
+                range,
+                MidiUtil.getMicrosecondsPerQuarterNote(data)
+        );
     }
 
     public static TimeSignature toTimeSignature(MidiEvent event, Range range) {
@@ -209,13 +220,17 @@ public class MidiImporter {
 
     }
 
-    public static <E extends Event<?>, C extends Ranged> List<C> assignRanges(
+    /**
+     * Turns meta events (which have a tick, but no end) into values that are each in effect until the next event,
+     * the last one until the end of the sequence.
+     */
+    public static <E extends Event<?>, C extends Ranged> Timeline<C> assignRanges(
             List<E> midiEvents,
             int sequenceLengthInTicks,
             Class<C> classToConvertTo
     ) {
 
-        if (midiEvents.isEmpty()) { return new ArrayList<>(); }
+        if (midiEvents.isEmpty()) { return new Timeline<>(List.of()); }
         List<E> eventsCopy = new ArrayList<>(midiEvents);
         eventsCopy.sort(Comparator.comparingLong(Event::getTick));
 
@@ -254,7 +269,7 @@ public class MidiImporter {
             out.add(instance);
         }
 
-        return out;
+        return new Timeline<>(out);
     }
 
 
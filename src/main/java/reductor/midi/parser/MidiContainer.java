@@ -1,6 +1,8 @@
 package reductor.midi.parser;
 
 
+import reductor.core.InstrumentRegistry;
+import reductor.midi.MidiUtil;
 import reductor.midi.validator.EventType;
 import reductor.midi.parser.events.*;
 import reductor.midi.parser.events.*;
@@ -10,6 +12,7 @@ import javax.sound.midi.MidiEvent;
 import javax.sound.midi.Sequence;
 import javax.sound.midi.Track;
 import java.util.ArrayList;
+import java.util.BitSet;
 
 
 public class MidiContainer {
@@ -37,6 +40,9 @@ public class MidiContainer {
     final ArrayList<ControlChangeEvent> controlChangeEvents = new ArrayList<>();
     final ArrayList<ProgramChangeEvent> programChangeEvents = new ArrayList<>();
 
+    // InstrumentRegistry ids of this file's track names and General MIDI programs
+    private final BitSet instrumentIds = new BitSet();
+
     public MidiContainer(Sequence sequence) throws InvalidMidiDataException {
         this.resolution = sequence.getResolution();
         this.lengthInTicks = sequence.getTickLength();
@@ -58,6 +64,9 @@ public class MidiContainer {
 
     public ArrayList<SetTempoEvent> getSetTempoEvents() {return this.setTempoEvents;}
 
+    /// The {@link InstrumentRegistry} ids of every track name and (known) GM program in this file.
+    public BitSet getInstrumentIds() {return (BitSet) this.instrumentIds.clone();}
+
 
     // Inner class meant as just a dispatcher for MidiContainer class
     private class EventSorter {
@@ -116,17 +125,31 @@ public class MidiContainer {
                 case NOTE_ON -> MidiContainer.this.noteOnEvents.add((NoteOnEvent) event);
                 case NOTE_OFF -> MidiContainer.this.noteOffEvents.add((NoteOffEvent) event);
                 case CONTROL_CHANGE -> MidiContainer.this.controlChangeEvents.add((ControlChangeEvent) event);
-                case PROGRAM_CHANGE -> MidiContainer.this.programChangeEvents.add((ProgramChangeEvent) event);
+                case PROGRAM_CHANGE -> {
+                    ProgramChangeEvent programChange = (ProgramChangeEvent) event;
+                    MidiContainer.this.programChangeEvents.add(programChange);
+                    register(MidiUtil.instruments.get(programChange.getInstrumentCode()));
+                }
                 case PITCH_BEND -> {}
                 case CHANNEL_PRESSURE -> {}
                 default -> throw new RuntimeException("no case for ChannelEvent type: " + type);
             }
         }
 
+        // Notes take their instrument from their track name, so registering here means their ids are ready
+        private void register(String instrument) {
+            int id = InstrumentRegistry.idOf(instrument);
+            if (id != InstrumentRegistry.NONE) { MidiContainer.this.instrumentIds.set(id); }
+        }
+
         private void handleMetaEvents(MetaEvent event) {
             EventType type = event.getType();
             switch (type) {
-                case TRACK_NAME -> MidiContainer.this.trackNameEvents.add((TrackNameEvent) event);
+                case TRACK_NAME -> {
+                    TrackNameEvent trackName = (TrackNameEvent) event;
+                    MidiContainer.this.trackNameEvents.add(trackName);
+                    register(trackName.getTrackNameAsString());
+                }
                 case PORT_CHANGE -> MidiContainer.this.portChangeEvents.add((PortChangeEvent) event);
                 case END_OF_TRACK -> MidiContainer.this.endOfTrackEvents.add((EndOfTrackEvent) event);
                 case SET_TEMPO -> MidiContainer.this.setTempoEvents.add((SetTempoEvent) event);
@@ -22,5 +22,9 @@ public final class SetTempoEvent extends MetaEvent {
         return MidiUtil.convertMicrosecondsToBPM(this.getMessage().getData());
     }
 
+    public int getMicrosecondsPerQuarterNote() {
+        return MidiUtil.getMicrosecondsPerQuarterNote(this.getMessage().getData());
+    }
+
 
 }
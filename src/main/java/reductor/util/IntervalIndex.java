@@ -0,0 +1,212 @@
+package reductor.util;
+
+import reductor.core.Range;
+import reductor.core.Ranged;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+
+/*
+ A flat, array-backed counterpart to IntervalTree. Same query contract, no Node objects.
+   - Construction in O(NlogN) time
+   - Queries in O(logN + m) time
+   - No insertion or removal; index is constructed once, from fixed data
+*/
+
+/*
+Layout:
+
+    Elements are sorted once (by low, then high) into parallel primitive arrays: lows[], highs[], and
+    elements[]. The tree over those arrays is implicit -- the "node" for the index span [first, last] is
+    its median, chosen exactly the way IntervalTree#buildScaffolding chooses it:
+
+        index:      0       1       2       3       4       5       6
+        range:   [5,30]  [7,20]  [10,15] [10,17] [10,20] [10,22] [10,25]
+
+        root = 3; left subtree = [0,2] (root 1); right subtree = [4,6] (root 5); etc.
+
+    maxHighs[i] is the greatest high endpoint in the subtree whose root is i (i.e., Node#max). Children
+    are never stored; they are recomputed from the span on the way down, so a query touches only
+    three int arrays that sit contiguously in memory.
+
+    Unlike IntervalTree, elements with duplicate ranges are not grouped under a single node; each
+    element gets its own slot. Exact duplicates (same range, equals()) are still dropped.
+*/
+
+
+public class IntervalIndex<T extends Ranged> {
+
+    // Sorted low endpoints, one per element
+    private final int[] lows;
+    // High endpoints, parallel to lows
+    private final int[] highs;
+    // Max high endpoint in the implicit subtree rooted at each index
+    private final int[] maxHighs;
+    // The elements themselves, parallel to lows
+    private final Object[] elements;
+
+
+    public IntervalIndex(List<T> elements) {
+
+        if (elements == null) { throw new NullPointerException(""); }
+
+        List<T> sorted = getUniqueElementsSorted(elements);
+
+        int size = sorted.size();
+        this.lows = new int[size];
+        this.highs = new int[size];
+        this.maxHighs = new int[size];
+        this.elements = new Object[size];
+
+        for (int i = 0; i < size; i++) {
+            Range range = sorted.get(i).getRange();
+            this.lows[i] = range.getLow();
+            this.highs[i] = range.getHigh();
+            this.elements[i] = sorted.get(i);
+        }
+
+        computeMaxHighs(0, size - 1);
+    }
+
+
+    //region construction helpers
+
+    // Stable sort by range, then drop exact duplicates (same range AND equals()), mirroring IntervalTree.Node#add
+    private List<T> getUniqueElementsSorted(List<T> elements) {
+
+        List<T> sorted = new ArrayList<>(elements);
+        sorted.sort(Comparator.comparing(Ranged::getRange));
+
+        List<T> out = new ArrayList<>(sorted.size());
+        int runStart = 0;
+        for (T elem : sorted) {
+
+            // Start a new run whenever the range changes
+            if (!out.isEmpty() && out.getLast().getRange().compareTo(elem.getRange()) != 0) {
+                runStart = out.size();
+            }
+
+            if (!out.subList(runStart, out.size()).contains(elem)) {
+                out.add(elem);
+            }
+        }
+
+        return out;
+    }
+
+    // Post-order: a subtree's max is known only after both of its children's maxes are
+    private int computeMaxHighs(int first, int last) {
+
+        if (first > last) { return -1; }
+
+        int middle = (first + last) >>> 1;
+        int leftMax = computeMaxHighs(first, middle - 1);
+        int rightMax = computeMaxHighs(middle + 1, last);
+
+        this.maxHighs[middle] = Math.max(this.highs[middle], Math.max(leftMax, rightMax));
+        return this.maxHighs[middle];
+    }
+
+    //endregion
+
+
+    //region query methods
+
+    public List<T> query(int point) {
+
+        if (point < 0  ||  isEmpty()) { return new ArrayList<>(); }
+
+        List<T> matches = new ArrayList<>();
+        query(0, this.lows.length - 1, point, point, matches);
+        matches.sort(null);
+        return matches;
+    }
+
+    public List<T> query(Range window) {
+
+        if (window == null) { throw new NullPointerException(); }
+        if (isEmpty()) { return new ArrayList<>(); }
+
+        List<T> matches = new ArrayList<>();
+        query(0, this.lows.length - 1, window.getLow(), window.getHigh(), matches);
+        return matches;
+    }
+
+    // In-order walk over the implicit subtree spanning [first, last], collecting everything that overlaps [low, high]
+    private void query(int first, int last, int low, int high, List<T> matches) {
+
+        // Base case (null child).
+        if (first > last) { return; }
+
+        int middle = (first + last) >>> 1;
+
+        // Nothing in this subtree reaches the window.
+        if (this.maxHighs[middle] < low) { return; }
+
+        // Look left.
+        query(first, middle - 1, low, high, matches);
+
+        // Everything from here rightward starts after the window.
+        if (high < this.lows[middle]) { return; }
+
+        // Target hit.
+        if (low <= this.highs[middle]) { matches.add(elementAt(middle)); }
+
+        // Look right.
+        query(middle + 1, last, low, high, matches);
+    }
+
+    //endregion
+
+
+    //region getters
+
+    /**
+     * @return The index as a List, in order.
+     */
+    public List<T> toList() {
+        List<T> inOrderList = new ArrayList<>(this.elements.length);
+        for (int i = 0; i < this.elements.length; i++) { inOrderList.add(elementAt(i)); }
+        return inOrderList;
+    }
+
+    /**
+     * @return True if this index is empty.
+     */
+    public boolean isEmpty() {
+        return this.elements.length == 0;
+    }
+
+    /**
+     * @return The total number of elements stored in this index.
+     */
+    public int getSizeElements() {
+        return this.elements.length;
+    }
+
+    /**
+     * @return The first tick in the index, or -1 if it is empty.
+     */
+    public int getFirstTick() {
+        return isEmpty() ? -1 : this.lows[0];
+    }
+
+    /**
+     * @return The last tick in the index, or -1 if it is empty.
+     * @see IntervalTree#getLastTick
+     */
+    public int getLastTick() {
+        return isEmpty() ? -1 : this.maxHighs[(this.lows.length - 1) >>> 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) this.elements[index];
+    }
+
+    //endregion
+
+
+}
@@ -3,15 +3,23 @@ package reductor.util;
 import reductor.core.Range;
 import reductor.core.Ranged;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 
 /*
  An interval tree that can contain any object which exposes a Range somehow.
-   - Construction in O(NlogN) time
-   - Queries in O(logN + m) time
+   - Construction in O(NlogN) time (optionally fork-join parallel)
+   - Queries in O(logN + m) time; counts and existence checks in O(logN), without allocating
    - No insertion or removal;tree is constructed once, from fixed data
 */
 
@@ -42,175 +50,598 @@ public class IntervalTree<T extends Ranged> {
     // Root of this interval tree
     private final Node root;
     // Size (in nodes)
-    private int sizeNodes;
+    private final int sizeNodes;
     // Size (in elements)
-    private int sizeElements;
+    private final int sizeElements;
+    // Every element's high endpoint, ascending (one entry per element, not per node); used for counting
+    private final int[] sortedHighs;
+    // The elements themselves, parallel to sortedHighs (ties broken by low); used for "ends before" lookups
+    private final Object[] byHigh;
 
     //Stack<Node> queriedNodes = new Stack<>(); // TODO
 
 
     public IntervalTree(List<T> elements) {
+        this(elements, null);
+    }
 
-        if (elements == null) { throw new NullPointerException(""); }
-
-        sizeNodes = 0;
-        sizeElements = 0;
-
-        // Represent each range in input List just once
-        ArrayList<Range> uniqueRanges = getUniqueRanges(elements);
+    /**
+     * Builds the tree, splitting the work across {@code pool} when it is non-null and the input is large.
+     * <p>
+     * The left and right halves of every median split are independent, so each is built as its own
+     * fork-join task until a subtree is smaller than {@link #PARALLEL_THRESHOLD}, below which it is built
+     * sequentially. The resulting tree is identical to the one built without a pool.
+     *
+     * @param elements The elements to store.
+     * @param pool The pool to build in, or null to build on the calling thread.
+     */
+    public IntervalTree(List<T> elements, ForkJoinPool pool) {
 
-        // Ensure the list is sorted before doing median-based recursive construction
-        uniqueRanges.sort(null);
+        if (elements == null) { throw new NullPointerException(""); }
 
-        // Build the outline/structure/skeleton of the tree
-        root = buildScaffolding(uniqueRanges);
+        // Sort elements (stably, so elements sharing a range keep their input order) ...
+        Ranged[] sorted = elements.toArray(new Ranged[0]);
+        Comparator<Ranged> byRange = Comparator.comparing(Ranged::getRange);
+        if (pool != null  &&  PARALLEL_THRESHOLD <= sorted.length) {
+            pool.submit(() -> Arrays.parallelSort(sorted, byRange)).join();
+        } else {
+            Arrays.sort(sorted, byRange);
+        }
 
-        // Add the actual elements to the nodes' lists
-        addAll(elements);
+        // ... then group them into one run per unique range; each run becomes exactly one node
+        List<Range> runRanges = new ArrayList<>();
+        List<List<T>> runElements = new ArrayList<>();
+        groupRuns(sorted, runRanges, runElements);
+
+        int elementCount = 0;
+        for (List<T> run : runElements) { elementCount += run.size(); }
+        this.sizeNodes = runRanges.size();
+        this.sizeElements = elementCount;
+
+        // Keep a second ordering, by end, for counting and backwards navigation
+        this.byHigh = new Object[elementCount];
+        int h = 0;
+        for (List<T> run : runElements) {
+            for (T elem : run) { this.byHigh[h++] = elem; }
+        }
+        Comparator<Object> byEnd = Comparator.comparingInt((Object o) -> ((Ranged) o).getRange().getHigh())
+                .thenComparingInt(o -> ((Ranged) o).getRange().getLow());
+        if (pool != null  &&  PARALLEL_THRESHOLD <= elementCount) {
+            pool.submit(() -> Arrays.parallelSort(this.byHigh, byEnd)).join();
+        } else {
+            Arrays.sort(this.byHigh, byEnd);
+        }
+        this.sortedHighs = new int[elementCount];
+        for (int i = 0; i < elementCount; i++) { this.sortedHighs[i] = ((Ranged) this.byHigh[i]).getRange().getHigh(); }
+
+        // Build the tree with every node already holding its elements
+        boolean parallel = pool != null  &&  PARALLEL_THRESHOLD <= runRanges.size();
+        Build build = new Build(runRanges, runElements, 0, runRanges.size() - 1, parallel);
+        if (parallel) {
+            this.root = pool.invoke(build);
+        } else {
+            this.root = build.compute();
+        }
     }
 
     // dev
-    public IntervalTree() { this.root = null; }
+    public IntervalTree() {
+        this.root = null;
+        this.sizeNodes = 0;
+        this.sizeElements = 0;
+        this.sortedHighs = new int[0];
+        this.byHigh = new Object[0];
+    }
     // dev
     public Node getRoot() { return this.root; }
 
 
     //region construction helpers
 
-    // List -> Set -> List to remove duplicates and get Range members only
-    private ArrayList<Range> getUniqueRanges(List<T> elements) {
-        HashSet<Range> rangesOnly = new HashSet<>();
-        for (T elem : elements) {
-            rangesOnly.add(elem.getRange());
+    // Subtrees (in nodes) smaller than this are built sequentially, even when a pool is given
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // Walks the sorted elements once, starting a new run whenever the range changes. Exact duplicates (same
+    // range, equals()) are dropped, as Node#add always did.
+    @SuppressWarnings("unchecked")
+    private void groupRuns(Ranged[] sorted, List<Range> runRanges, List<List<T>> runElements) {
+
+        List<T> run = null;
+        Range runRange = null;
+
+        for (Ranged ranged : sorted) {
+
+            T elem = (T) ranged;
+            Range range = elem.getRange();
+
+            if (run == null  ||  range.compareTo(runRange) != 0) {
+                run = new ArrayList<>(1);
+                runRange = range;
+                runRanges.add(range);
+                runElements.add(run);
+            }
+
+            if (!run.contains(elem)) { run.add(elem); }
         }
-        return new ArrayList<>(rangesOnly);
     }
 
-    // Driver that recursively constructs the structure of the tree; all nodes are still empty when this function returns
-    private Node buildScaffolding(ArrayList<Range> ranges) {
-        return buildScaffolding(ranges, 0, ranges.size() - 1);
-    }
+    /*
+     Recursively constructs the tree over runs [first, last], median first, exactly as the old two-pass
+     scaffolding did, except that elements are handed to each node as it is created (rather than being added
+     afterward by descending from the root once per element) and max is known on the way back up.
+    */
+    private class Build extends RecursiveTask<Node> {
+
+        private final List<Range> ranges;
+        private final List<List<T>> elements;
+        private final int first;
+        private final int last;
+        // False when built without a pool: a fork() outside a pool would run in the common pool
+        private final boolean parallel;
+
+        Build(List<Range> ranges, List<List<T>> elements, int first, int last, boolean parallel) {
+            this.ranges = ranges;
+            this.elements = elements;
+            this.first = first;
+            this.last = last;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected Node compute() {
+
+            if (!this.parallel  ||  this.last - this.first + 1 < PARALLEL_THRESHOLD) {
+                return build(this.first, this.last);
+            }
+
+            int middle = (this.first + this.last) / 2;
+
+            Build left = new Build(this.ranges, this.elements, this.first, middle - 1, true);
+            Build right = new Build(this.ranges, this.elements, middle + 1, this.last, true);
+            left.fork();
+            Node rightNode = right.compute();
+            Node leftNode = left.join();
+
+            return link(middle, leftNode, rightNode);
+        }
+
+        private Node build(int first, int last) {
+
+            // e.g., first: 25; last: 24 (base case: return a null child)
+            if (first > last) { return null; }
 
-    private Node buildScaffolding(ArrayList<Range> ranges, int firstIndex, int lastIndex) {
+            // e.g., 0 to 100 --> 50 (upper median)
+            int middle = (first + last) / 2;
 
-        // e.g., firstIndex: 25; lastIndex: 24
-        if (firstIndex > lastIndex) {
-            // Base case (return a null child)
-            return null;
+            return link(middle, build(first, middle - 1), build(middle + 1, last));
         }
 
-        // e.g., 0 to 100 --> 50 (upper median)
-        int middleIndex = (firstIndex + lastIndex) / 2;
+        private Node link(int middle, Node left, Node right) {
+            Node node = new Node(this.ranges.get(middle), this.elements.get(middle));
+            node.left = left;
+            node.right = right;
+            node.max = node.range.getHigh();
+            if (left != null  &&  node.max < left.max) { node.max = left.max; }
+            if (right != null  &&  node.max < right.max) { node.max = right.max; }
+            node.count = count(left) + node.elements.size() + count(right);
+            return node;
+        }
+
+    }
+
+    //endregion
+
+
+    //region query methods
+
+    public List<T> query(int point) {
+        List<T> matches = new ArrayList<>();
+        queryInto(point, matches);
+        matches.sort(null);
+        return matches;
+    }
+
+    public List<T> query(Range window) {
+        if (window == null) { throw new NullPointerException(); }
+        List<T> matches = new ArrayList<>();
+        queryInto(window, matches);
+        return matches;
+    }
+
+    /*
+     The callback overloads below visit matches in tree order (node, then left, then right) rather than
+     sorted order, and allocate nothing themselves. They are meant for hot paths, e.g. stabbing the meta
+     event trees once per measure.
+    */
+
+    /**
+     * Passes every element whose range contains {@code point} to {@code action}, without building a list.
+     */
+    public void query(int point, Consumer<? super T> action) {
+        if (point < 0  ||  isEmpty()) { return; }
+        query(root, point, action);
+    }
+
+    private void query(Node node, int point, Consumer<? super T> action) {
+
+        // Target hit.
+        if (node.range.contains(point)) { node.forEach(action); }
+
+        // Look left & right.
+        if (node.left != null  &&  point <= node.left.max) { query(node.left, point, action); }
+        if (node.right != null  &&  point >= node.range.getLow()) { query(node.right, point, action); }
+    }
+
+    /**
+     * Passes every element whose range overlaps {@code window} to {@code action}, without building a list.
+     */
+    public void query(Range window, Consumer<? super T> action) {
+        if (window == null) { throw new NullPointerException(); }
+        if (isEmpty()) { return; }
+        query(root, window, action);
+    }
+
+    private void query(Node node, Range window, Consumer<? super T> action) {
 
-        // e.g., add 50 here (median of subtree rooted at this node)
-        Node node = new Node(ranges.get(middleIndex));
-        sizeNodes++;
+        // Target hit.
+        if (window.overlaps(node.range)) { node.forEach(action); }
 
-        // e.g.,start left subtree with 0 to 49
-        node.left = buildScaffolding(ranges, firstIndex, middleIndex - 1);
+        // Look left & right.
+        if (node.left != null  &&  window.getLow() <= node.left.max) { query(node.left, window, action); }
+        if (node.right != null  &&  window.getHigh() >= node.range.getLow()) { query(node.right, window, action); }
+    }
 
-        // e.g.,start right subtree with 51 to 100
-        node.right = buildScaffolding(ranges, middleIndex + 1, lastIndex);
+    /**
+     * Appends matches for {@code point} to a caller-owned sink, which can be cleared and reused between calls.
+     * Unlike {@link #query(int)}, the matches are not sorted.
+     */
+    public void queryInto(int point, Collection<? super T> sink) {
+        if (point < 0  ||  isEmpty()) { return; }
+        queryInto(root, point, sink);
+    }
 
-        // return the actual node you just created here once all of the functions you called have returned
-        return node;
+    private void queryInto(Node node, int point, Collection<? super T> sink) {
+        if (node.range.contains(point)) { sink.addAll(node.elements); }
+        if (node.left != null  &&  point <= node.left.max) { queryInto(node.left, point, sink); }
+        if (node.right != null  &&  point >= node.range.getLow()) { queryInto(node.right, point, sink); }
+    }
 
+    /**
+     * Appends matches for {@code window} to a caller-owned sink, which can be cleared and reused between calls.
+     */
+    public void queryInto(Range window, Collection<? super T> sink) {
+        if (window == null) { throw new NullPointerException(); }
+        if (isEmpty()) { return; }
+        queryInto(root, window, sink);
+    }
+
+    private void queryInto(Node node, Range window, Collection<? super T> sink) {
+        if (window.overlaps(node.range)) { sink.addAll(node.elements); }
+        if (node.left != null  &&  window.getLow() <= node.left.max) { queryInto(node.left, window, sink); }
+        if (node.right != null  &&  window.getHigh() >= node.range.getLow()) { queryInto(node.right, window, sink); }
     }
 
-    // convenience/driver
-    private void addAll(List<T> elements) {
-        for (T elem : elements) {
-            add(root, elem);
+    /*
+     Counting works without visiting matches at all. Everything that overlaps [low, high] starts at or before
+     high, and everything that starts at or before high either overlaps the window or ended before low:
+
+         overlapping  =  #(start <= high)  -  #(end < low)
+
+     The first term is one descent using subtree counts (the tree is ordered by start); the second is a binary
+     search over every element's end, kept sorted on the side.
+    */
+
+    /**
+     * @return The number of elements whose range overlaps {@code window}, in O(logN) and without allocating.
+     */
+    public int countOverlapping(Range window) {
+        if (window == null) { throw new NullPointerException(); }
+        return countOverlapping(window.getLow(), window.getHigh());
+    }
+
+    /**
+     * @return The number of elements whose range contains {@code point}, in O(logN) and without allocating.
+     */
+    public int countAt(int point) {
+        if (point < 0) { return 0; }
+        return countOverlapping(point, point);
+    }
+
+    private int countOverlapping(int low, int high) {
+        if (isEmpty()) { return 0; }
+        return countStartingAtOrBefore(high) - countEndingBefore(low);
+    }
+
+    private int countStartingAtOrBefore(int tick) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.range.getLow() <= tick) {
+                // This node and its whole left subtree start at or before tick; the right subtree might too
+                count += count(node.left) + node.elements.size();
+                node = node.right;
+            } else {
+                node = node.left;
+            }
         }
+        return count;
     }
 
-    private void add(Node node, T elem) {
+    private int countEndingBefore(int tick) {
+        // Leftmost insertion point of tick, i.e. the number of highs strictly less than it
+        int first = 0;
+        int last = this.sortedHighs.length;
+        while (first < last) {
+            int middle = (first + last) >>> 1;
+            if (this.sortedHighs[middle] < tick) { first = middle + 1; } else { last = middle; }
+        }
+        return first;
+    }
 
-        // Update node.max if elem to be added will set the new max right endpoint of elems in subtree rooted at
-        // this node
-        if (node.max < elem.getRange().getHigh()) {
-            node.max = elem.getRange().getHigh();
+    /**
+     * @return True if any element overlaps {@code window}. Follows a single root-to-leaf path.
+     */
+    public boolean anyOverlapping(Range window) {
+
+        if (window == null) { throw new NullPointerException(); }
+
+        Node node = root;
+        while (node != null) {
+
+            if (window.overlaps(node.range)) { return true; }
+
+            // If anything on the left reaches the window, either it overlaps or it starts after the window
+            // ends -- in which case nothing on the right can overlap either. So never look both ways.
+            if (node.left != null  &&  window.getLow() <= node.left.max) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
         }
 
-        if (elem.getRange().compareTo(node.getRange()) < 0) {
-            if (node.left != null) {
-                add(node.left, elem);
+        return false;
+    }
+
+    /**
+     * Answers many window queries at once, in a single left-to-right sweep over the tree's nodes.
+     * <p>
+     * The windows must be sorted so that both endpoints never decrease (e.g., the adjacent, non-overlapping
+     * Ranges of Columns or Measures). Each node then enters the sweep once, when the first window reaches its
+     * low endpoint, and leaves it once, when a window starts after its high endpoint, giving
+     * {@code O(n + m + output)} overall instead of one {@code O(logN + k)} descent per window.
+     *
+     * @param sortedWindows Windows sorted by low endpoint, with non-decreasing high endpoints.
+     * @return One list of matches per window, in the same order as the windows. Each list is in tree order.
+     * @throws IllegalArgumentException If the windows are not sorted as described.
+     */
+    public List<List<T>> queryAll(List<Range> sortedWindows) {
+
+        if (sortedWindows == null) { throw new NullPointerException(); }
+
+        List<List<T>> out = new ArrayList<>(sortedWindows.size());
+        if (sortedWindows.isEmpty()) { return out; }
+
+        List<Node> nodes = new ArrayList<>(this.sizeNodes);
+        collectNodes(root, nodes);
+
+        // Nodes that have started (low <= current window's high) and have not yet been seen to end
+        List<Node> active = new ArrayList<>();
+        int next = 0;
+        Range previous = null;
+
+        for (Range window : sortedWindows) {
+
+            if (previous != null
+                    && (window.getLow() < previous.getLow() || window.getHigh() < previous.getHigh())) {
+                throw new IllegalArgumentException("windows must be sorted: " + previous + " then " + window);
             }
-        } else if (elem.getRange().compareTo(node.getRange()) > 0) {
-            if (node.right != null) {
-                add(node.right, elem);
+
+            // Admit everything that starts before this window ends
+            while (next < nodes.size()  &&  nodes.get(next).range.getLow() <= window.getHigh()) {
+                active.add(nodes.get(next++));
             }
-        } else {
-            // Only increment element count if node added elem (exact duplicates are not added)
-            if (node.add(elem)) {
-                sizeElements++;
+
+            // Drop anything that ended before this window started (it cannot reach any later window either);
+            // everything left overlaps this window
+            List<T> matches = new ArrayList<>();
+            int kept = 0;
+            for (int i = 0; i < active.size(); i++) {
+                Node node = active.get(i);
+                if (node.range.getHigh() < window.getLow()) { continue; }
+                active.set(kept++, node);
+                matches.addAll(node.elements);
             }
+            active.subList(kept, active.size()).clear();
+
+            out.add(matches);
+            previous = window;
         }
 
+        return out;
     }
 
-    //endregion
+    private int count(Node node) {
+        return node == null ? 0 : node.count;
+    }
 
+    private void collectNodes(Node node, List<Node> nodes) {
+        if (node == null) { return; }
+        collectNodes(node.left, nodes);
+        nodes.add(node);
+        collectNodes(node.right, nodes);
+    }
 
-    //region query methods
+    /**
+     * Returns the first element (in tree order, i.e. by range) containing {@code point}, stopping as soon as it
+     * is found. For trees of non-overlapping elements (time signatures, key signatures, tempos), this is simply
+     * "the element at {@code point}".
+     *
+     * @return The first match, or null if nothing contains {@code point}.
+     */
+    public T findFirst(int point) {
+        if (point < 0  ||  isEmpty()) { return null; }
+        return findFirst(root, point);
+    }
 
-    public List<T> query(int point) {
+    private T findFirst(Node node, int point) {
 
-        if (point < 0  ||  isEmpty()) { return new ArrayList<>(); }
+        // Base case, or nothing in this subtree reaches the point.
+        if (node == null  ||  node.max < point) { return null; }
 
-        List<T> matches = new ArrayList<>();
-        query(root, point, matches);
-        var out = new ArrayList<>(matches);
-        out.sort(null);
-        return out;
-    }
+        // Anything on the left sorts first.
+        T match = findFirst(node.left, point);
+        if (match != null) { return match; }
 
-    private List<T> query(Node node, int point, List<T> matches) {
+        // Everything from here rightward starts after the point.
+        if (point < node.range.getLow()) { return null; }
 
         // Target hit.
-        if (node.getRange().contains(point)) { matches.addAll(node.elements); }
+        if (node.range.contains(point)) { return node.elements.getFirst(); }
 
-        // Base case.
-        if (node.left == null  &&  node.right == null) { return matches; }
+        return findFirst(node.right, point);
+    }
 
-        // Look left & right.
-        if (node.left != null  &&  point <= node.left.getMax()) { query(node.left, point, matches); }
-        if (node.right != null  &&  point >= node.getRange().getLow()) { query(node.right, point, matches); }
+    //endregion
 
-        // Continue to search
-        return matches;
+
+    //region navigation
+
+    /*
+     Navigation answers "what comes next/before tick t" without collecting anything. Forward lookups are a
+     single descent ordered by low. Backward lookups are by *end*, which the tree is not ordered by, so they
+     binary search the by-high side array that counting already keeps.
+
+     Where several elements share the node that answers a lookup, the first of them is returned.
+    */
+
+    /**
+     * @return The first element (by range) starting strictly after {@code tick}, or null if there is none.
+     */
+    public T nextStartAfter(int tick) {
+        if (tick == Integer.MAX_VALUE) { return null; }
+        return ceilingByLow(tick + 1);
     }
 
+    /**
+     * @return The element whose end is the greatest one strictly before {@code tick} (latest start wins ties), or
+     *     null if nothing ends before {@code tick}.
+     */
+    @SuppressWarnings("unchecked")
+    public T prevEndBefore(int tick) {
+        int index = countEndingBefore(tick) - 1;
+        return index < 0 ? null : (T) this.byHigh[index];
+    }
 
-    public List<T> query(Range window) {
+    /**
+     * @return The first element (by range) whose low is at or after {@code tick}, or null if there is none.
+     */
+    public T ceilingByLow(int tick) {
+        Node ceiling = null;
+        Node node = root;
+        while (node != null) {
+            if (tick <= node.range.getLow()) {
+                ceiling = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return ceiling == null ? null : ceiling.elements.getFirst();
+    }
 
-        if (window == null) { throw new NullPointerException(); }
-        if (isEmpty()) { return new ArrayList<>(); }
+    /**
+     * @return The last element (by range) whose low is at or before {@code tick}, or null if there is none.
+     */
+    public T floorByLow(int tick) {
+        Node floor = null;
+        Node node = root;
+        while (node != null) {
+            if (node.range.getLow() <= tick) {
+                floor = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return floor == null ? null : floor.elements.getFirst();
+    }
 
-        List<T> matches = new ArrayList<>();
-        query(root, window, matches);
-        return new ArrayList<>(matches);
+    /**
+     * @return A cursor positioned before the first element of this tree.
+     */
+    public Cursor cursor() {
+        return new Cursor();
     }
 
-    private List<T> query(Node node, Range window, List<T> matches) {
+    /**
+     * A forward, in-order walk over every element of the tree that never goes back to the root.
+     * <p>
+     * The cursor holds the path to its next node on an explicit stack, so a full pass costs O(N) in total, and
+     * {@link #advanceTo} only descends into the parts of the tree it has not passed yet.
+     */
+    public class Cursor implements Iterator<T> {
 
-        // Target hit.
-        if (window.overlaps(node.getRange())) { matches.addAll(node.elements); }
+        // Next node on top; every node below it on the stack comes later in order
+        private final ArrayDeque<Node> path;
+        // Position of the next element within the node on top of the stack
+        private int index;
+
+        private Cursor() {
+            this.path = new ArrayDeque<>();
+            this.index = 0;
+            pushLeftSpine(root, Integer.MIN_VALUE);
+        }
 
-        // Base case.
-        if (node.left == null  &&  node.right == null) { return matches; }
+        @Override public boolean hasNext() {
+            return !this.path.isEmpty();
+        }
 
-        // Look left & right.
-        if (node.left != null  &&  window.getLow() <= node.left.getMax()) {
-            query(node.left, window, matches);
+        @Override public T next() {
+            if (this.path.isEmpty()) { throw new NoSuchElementException(); }
+            Node node = this.path.peek();
+            T elem = node.elements.get(this.index++);
+            if (this.index == node.elements.size()) { pop(Integer.MIN_VALUE); }
+            return elem;
         }
 
-        if (node.right != null  &&  window.getHigh() >= node.getRange().getLow()) {
-            query(node.right, window, matches);
+        /**
+         * @return The element the next call to {@link #next()} will return, or null if the cursor is exhausted.
+         */
+        public T peek() {
+            return this.path.isEmpty() ? null : this.path.peek().elements.get(this.index);
+        }
+
+        /**
+         * Moves forward (never backward) so that the next element returned is the first one starting at or after
+         * {@code tick}.
+         *
+         * @return This cursor.
+         */
+        public Cursor advanceTo(int tick) {
+            while (!this.path.isEmpty()  &&  this.path.peek().range.getLow() < tick) { pop(tick); }
+            return this;
+        }
+
+        // Moves past the node on top of the stack, descending into its right subtree
+        private void pop(int tick) {
+            Node node = this.path.pop();
+            this.index = 0;
+            pushLeftSpine(node.right, tick);
+        }
+
+        // Pushes the path to the first node in this subtree that starts at or after tick; anything that starts
+        // before tick is skipped along with its left subtree
+        private void pushLeftSpine(Node node, int tick) {
+            while (node != null) {
+                if (node.range.getLow() < tick) {
+                    node = node.right;
+                } else {
+                    this.path.push(node);
+                    node = node.left;
+                }
+            }
         }
 
-        // Continue to search
-        return matches;
     }
 
     //endregion
@@ -354,6 +785,8 @@ public class IntervalTree<T extends Ranged> {
         private final Range range;
         // max endpoint in subtree rooted at this node (used to ignore left subtrees during queries)
         private int max;
+        // number of elements in subtree rooted at this node (used for counting without collecting)
+        private int count;
         // This node's data: elements with the same range
         List<T> elements;
 
@@ -363,19 +796,18 @@ public class IntervalTree<T extends Ranged> {
 
         //boolean queried; // TODO flag used for queries
 
-        Node(Range range) {
-            this.range = new Range(range);
+        Node(Range range, List<T> elements) {
+            this.range = range;
             this.max = -1;
             this.left = null;
             this.right = null;
-            this.elements = new ArrayList<>();
+            this.elements = elements;
             //this.queried = false; // TODO
         }
 
-        boolean add(T elem) {
-            assert elem.getRange().equals(this.getRange());
-            if (this.elements.contains(elem)) { return false; }
-            return this.elements.add(elem);
+        // Index loop rather than for-each so that query callbacks don't allocate an Iterator per node
+        void forEach(Consumer<? super T> action) {
+            for (int i = 0; i < this.elements.size(); i++) { action.accept(this.elements.get(i)); }
         }
 
         // The number of elements this node holds
@@ -394,7 +826,7 @@ public class IntervalTree<T extends Ranged> {
         }
 
         @Override public Range getRange() {
-            return new Range(this.range);
+            return this.range;
         }
 
     }
@@ -0,0 +1,339 @@
+package reductor.util;
+
+import reductor.core.Range;
+import reductor.core.Ranged;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/*
+ An interval tree that supports insertion and removal after construction.
+   - Insertion in O(logN) expected time
+   - Removal in O(logN) expected time
+   - Queries in O(logN + m) expected time
+   - Same node/element semantics and query contract as IntervalTree
+*/
+
+/*
+Balancing:
+
+    The tree is a treap. Nodes are ordered by Range exactly as in IntervalTree (low, then high; elements with
+    identical ranges share a node), and each node also carries a random priority. Parents always have a
+    higher priority than their children, which keeps the expected height logarithmic no matter what order
+    ranges arrive in -- e.g., appending notes left-to-right, which would degrade a plain BST to a list.
+
+    Rotations and removals only ever change the children of nodes on the path that was walked, so the
+    augmented value (max high endpoint of a subtree) is repaired on the way back up that path:
+
+        node.max = max(node.range.high, left.max, right.max)
+
+    A node whose last element is removed is itself removed, by merging its two subtrees.
+
+    Priorities come from a fixed seed so that a given sequence of edits always produces the same shape.
+*/
+
+
+public class MutableIntervalTree<T extends Ranged> {
+
+    private static final long SEED = 0x5EED_CAFEL;
+
+    // Root of this interval tree
+    private Node root;
+    // Size (in nodes)
+    private int sizeNodes;
+    // Size (in elements)
+    private int sizeElements;
+
+    // Source of node priorities
+    private final SplittableRandom priorities;
+    // Set by the recursive insert/remove helpers so the public methods can report whether anything changed
+    private boolean changed;
+
+
+    public MutableIntervalTree() {
+        this.root = null;
+        this.sizeNodes = 0;
+        this.sizeElements = 0;
+        this.priorities = new SplittableRandom(SEED);
+    }
+
+    public MutableIntervalTree(List<T> elements) {
+        this();
+        if (elements == null) { throw new NullPointerException(""); }
+        for (T elem : elements) { insert(elem); }
+    }
+
+
+    //region insert / remove
+
+    /**
+     * Adds an element to this tree.
+     *
+     * @return True if the element was added; false if an equal element with the same range was already present.
+     */
+    public boolean insert(T elem) {
+        if (elem == null) { throw new NullPointerException(); }
+        this.changed = false;
+        this.root = insert(this.root, elem.getRange(), elem);
+        return this.changed;
+    }
+
+    private Node insert(Node node, Range range, T elem) {
+
+        // Base case: fell off the tree, so this range is new
+        if (node == null) {
+            Node created = new Node(range, this.priorities.nextInt());
+            created.elements.add(elem);
+            created.update();
+            this.sizeNodes++;
+            this.sizeElements++;
+            this.changed = true;
+            return created;
+        }
+
+        int cmp = range.compareTo(node.range);
+        if (cmp < 0) {
+            node.left = insert(node.left, range, elem);
+            if (node.left.priority > node.priority) { node = rotateRight(node); }
+        } else if (cmp > 0) {
+            node.right = insert(node.right, range, elem);
+            if (node.right.priority > node.priority) { node = rotateLeft(node); }
+        } else if (!node.elements.contains(elem)) {
+            node.elements.add(elem);
+            this.sizeElements++;
+            this.changed = true;
+        }
+
+        node.update();
+        return node;
+    }
+
+    /**
+     * Removes an element from this tree.
+     *
+     * @return True if the element was found (by range and equals()) and removed.
+     */
+    public boolean remove(T elem) {
+        if (elem == null) { throw new NullPointerException(); }
+        this.changed = false;
+        this.root = remove(this.root, elem.getRange(), elem);
+        return this.changed;
+    }
+
+    private Node remove(Node node, Range range, T elem) {
+
+        // Base case: not in the tree
+        if (node == null) { return null; }
+
+        int cmp = range.compareTo(node.range);
+        if (cmp < 0) {
+            node.left = remove(node.left, range, elem);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, range, elem);
+        } else if (node.elements.remove(elem)) {
+            this.sizeElements--;
+            this.changed = true;
+            if (node.elements.isEmpty()) {
+                this.sizeNodes--;
+                return merge(node.left, node.right);
+            }
+        }
+
+        node.update();
+        return node;
+    }
+
+    // Joins two treaps where everything in `left` sorts before everything in `right`
+    private Node merge(Node left, Node right) {
+
+        if (left == null) { return right; }
+        if (right == null) { return left; }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    /*
+             node                 left
+            /    \               /    \
+         left     c    ==>      a     node
+        /    \                       /    \
+       a      b                     b      c
+    */
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    // Mirror image of rotateRight
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    //endregion
+
+
+    //region query methods
+
+    public List<T> query(int point) {
+
+        if (point < 0  ||  isEmpty()) { return new ArrayList<>(); }
+
+        List<T> matches = new ArrayList<>();
+        query(this.root, point, point, matches);
+        matches.sort(null);
+        return matches;
+    }
+
+    public List<T> query(Range window) {
+
+        if (window == null) { throw new NullPointerException(); }
+        if (isEmpty()) { return new ArrayList<>(); }
+
+        List<T> matches = new ArrayList<>();
+        query(this.root, window.getLow(), window.getHigh(), matches);
+        return matches;
+    }
+
+    private void query(Node node, int low, int high, List<T> matches) {
+
+        // Base case, or nothing in this subtree reaches the window.
+        if (node == null  ||  node.max < low) { return; }
+
+        // Look left.
+        query(node.left, low, high, matches);
+
+        // Everything from here rightward starts after the window.
+        if (high < node.range.getLow()) { return; }
+
+        // Target hit.
+        if (low <= node.range.getHigh()) { matches.addAll(node.elements); }
+
+        // Look right.
+        query(node.right, low, high, matches);
+    }
+
+    //endregion
+
+
+    //region getters
+
+    /**
+     * @return The tree as List, in order.
+     */
+    public List<T> toList() {
+        List<T> inOrderList = new ArrayList<>();
+        toList(this.root, inOrderList);
+        return inOrderList;
+    }
+
+    private void toList(Node node, List<T> inOrderList) {
+        if (node == null) { return; }
+        toList(node.left, inOrderList);
+        inOrderList.addAll(node.elements);
+        toList(node.right, inOrderList);
+    }
+
+    /**
+     * @return True if this tree is empty.
+     */
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    /**
+     * @return The number of nodes in this tree.
+     */
+    public int getSizeNodes() {
+        return this.sizeNodes;
+    }
+
+    /**
+     * @return The total number of elements stored at all nodes in this tree.
+     */
+    public int getSizeElements() {
+        return this.sizeElements;
+    }
+
+    /**
+     * @return The last tick in the tree, or -1 if it is empty.
+     * @see IntervalTree#getLastTick
+     */
+    public int getLastTick() {
+        return isEmpty() ? -1 : this.root.max;
+    }
+
+    /**
+     * @return The height of this tree (0 if empty). Exposed so tests can check that it stays balanced.
+     */
+    public int getHeight() {
+        return getHeight(this.root);
+    }
+
+    private int getHeight(Node node) {
+        if (node == null) { return 0; }
+        return 1 + Math.max(getHeight(node.left), getHeight(node.right));
+    }
+
+    //endregion
+
+
+    //region Node
+
+    // A binary node which represents a range and stores a list of ranged elements
+    private class Node {
+
+        // the Range (i.e., interval of interval tree, not musical interval) this node represents
+        private final Range range;
+        // treap priority; parents always outrank their children
+        private final int priority;
+        // max endpoint in subtree rooted at this node (used to ignore subtrees during queries)
+        private int max;
+        // This node's data: elements with the same range
+        private final List<T> elements;
+
+        // Child nodes
+        private Node left;
+        private Node right;
+
+        Node(Range range, int priority) {
+            this.range = range;
+            this.priority = priority;
+            this.max = -1;
+            this.elements = new ArrayList<>(1);
+            this.left = null;
+            this.right = null;
+        }
+
+        // Recomputes max from this node's range and its (already correct) children
+        void update() {
+            int max = this.range.getHigh();
+            if (this.left != null && this.left.max > max) { max = this.left.max; }
+            if (this.right != null && this.right.max > max) { max = this.right.max; }
+            this.max = max;
+        }
+
+    }
+
+    //endregion
+
+
+}
@@ -0,0 +1,243 @@
+package reductor.util;
+
+import reductor.core.Note;
+import reductor.core.NoteTable;
+import reductor.core.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+
+/*
+ An IntervalIndex over the rows of a NoteTable, rather than over Note objects. This is what a Piece indexes its
+ notes with: the table is the only copy of the notes, and queries answer with row numbers (or, on request, Note
+ views), so indexing costs one int per note on top of the table.
+   - Construction in O(N) time, given rows already sorted by range (or O(NlogN) through of())
+   - Queries in O(logN + m) time
+   - No insertion or removal
+*/
+
+/*
+Layout:
+
+    The table's rows are sorted by start, then stop, so its starts[] and stops[] are IntervalIndex's lows[] and
+    highs[] as they are. The tree over the rows is implicit in exactly the same way -- the "node" for the row span
+    [first, last] is its median -- and maxStops[i] is the greatest stop in the subtree whose root is row i.
+
+    The index itself de-duplicates nothing: every row is a note (of() drops exact duplicates before making the
+    table, as IntervalTree does). An in-order walk visits rows in ascending order, so query results are in range
+    order, with notes sharing a range in table order.
+*/
+
+
+public class NoteIndex {
+
+    /** Sorts of at least this many notes are done in parallel, when there is a pool to do them in. */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private final NoteTable table;
+    // Max stop in the implicit subtree rooted at each row
+    private final int[] maxStops;
+
+
+    /**
+     * @param table A table whose rows are sorted by range.
+     * @throws IllegalArgumentException If they are not.
+     */
+    public NoteIndex(NoteTable table) {
+
+        if (table == null) { throw new NullPointerException(""); }
+
+        for (int row = 1; row < table.size(); row++) {
+            int start = table.getStart(row - 1);
+            if (table.getStart(row) < start
+                    ||  (table.getStart(row) == start  &&  table.getStop(row) < table.getStop(row - 1))) {
+                throw new IllegalArgumentException("rows are not sorted by range at row " + row);
+            }
+        }
+
+        this.table = table;
+        this.maxStops = new int[table.size()];
+        computeMaxStops(0, table.size() - 1);
+    }
+
+    /**
+     * Builds a table of {@code notes}, sorted (stably, so notes sharing a range keep their order) by range, and
+     * indexes it. Exact duplicates (see {@link Note#equals}) are dropped, keeping the first, as in IntervalTree.
+     *
+     * @param resolution Ticks per quarter of the notes' piece (see {@link NoteTable}).
+     * @param pool The pool to sort in; null sorts on the calling thread.
+     */
+    public static NoteIndex of(List<Note> notes, int resolution, ForkJoinPool pool) {
+
+        if (notes == null) { throw new NullPointerException(""); }
+
+        Note[] sorted = notes.toArray(new Note[0]);
+        Comparator<Note> byRange = Comparator.comparing(Note::getRange);
+        if (pool != null  &&  PARALLEL_THRESHOLD <= sorted.length) {
+            pool.submit(() -> Arrays.parallelSort(sorted, byRange)).join();
+        } else {
+            Arrays.sort(sorted, byRange);
+        }
+
+        return new NoteIndex(new NoteTable(distinct(sorted), resolution));
+    }
+
+
+    //region construction helpers
+
+    // Post-order: a subtree's max is known only after both of its children's maxes are
+    private int computeMaxStops(int first, int last) {
+
+        if (first > last) { return -1; }
+
+        int middle = (first + last) >>> 1;
+        int leftMax = computeMaxStops(first, middle - 1);
+        int rightMax = computeMaxStops(middle + 1, last);
+
+        this.maxStops[middle] = Math.max(this.table.getStop(middle), Math.max(leftMax, rightMax));
+        return this.maxStops[middle];
+    }
+
+    // Duplicates share a range, so each note need only be checked against the run of notes with its range
+    private static List<Note> distinct(Note[] sorted) {
+        List<Note> out = new ArrayList<>(sorted.length);
+        int runStart = 0;
+        for (Note note : sorted) {
+            if (!out.isEmpty()  &&  out.getLast().getRange().compareTo(note.getRange()) != 0) {
+                runStart = out.size();
+            }
+            if (!out.subList(runStart, out.size()).contains(note)) { out.add(note); }
+        }
+        return out;
+    }
+
+    //endregion
+
+
+    //region query methods
+
+    /**
+     * @return The rows whose notes overlap {@code window}, in ascending order.
+     */
+    public int[] rowsOverlapping(Range window) {
+
+        if (window == null) { throw new NullPointerException(); }
+
+        // Count first, so the result is allocated once, at its exact size
+        int last = size() - 1;
+        int[] rows = new int[count(0, last, window.getLow(), window.getHigh())];
+        collect(0, last, window.getLow(), window.getHigh(), rows, 0);
+        return rows;
+    }
+
+    /**
+     * @return Views (see {@link NoteTable#get}) of the notes overlapping {@code window}, in range order.
+     */
+    public List<Note> query(Range window) {
+        int[] rows = rowsOverlapping(window);
+        List<Note> notes = new ArrayList<>(rows.length);
+        for (int row : rows) { notes.add(this.table.get(row)); }
+        return notes;
+    }
+
+    /**
+     * @return The number of notes sounding at {@code point}, without allocating.
+     */
+    public int countAt(int point) {
+        if (point < 0) { return 0; }
+        return count(0, size() - 1, point, point);
+    }
+
+    /**
+     * @return True if any note overlaps {@code window}. Follows a single root-to-leaf path.
+     */
+    public boolean anyOverlapping(Range window) {
+
+        if (window == null) { throw new NullPointerException(); }
+
+        int first = 0;
+        int last = size() - 1;
+        while (first <= last) {
+
+            int middle = (first + last) >>> 1;
+            if (this.table.getStart(middle) <= window.getHigh()  &&  window.getLow() <= this.table.getStop(middle)) {
+                return true;
+            }
+
+            // As in IntervalTree: if anything on the left reaches the window, either it overlaps or it starts after
+            // the window ends -- in which case nothing on the right can overlap either. So never look both ways.
+            if (first < middle  &&  window.getLow() <= this.maxStops[(first + middle - 1) >>> 1]) {
+                last = middle - 1;
+            } else {
+                first = middle + 1;
+            }
+        }
+
+        return false;
+    }
+
+    // In-order walks over the implicit subtree spanning [first, last], as in IntervalIndex#query
+
+    private int count(int first, int last, int low, int high) {
+
+        if (first > last) { return 0; }
+
+        int middle = (first + last) >>> 1;
+        if (this.maxStops[middle] < low) { return 0; }
+
+        int count = count(first, middle - 1, low, high);
+        if (high < this.table.getStart(middle)) { return count; }
+        if (low <= this.table.getStop(middle)) { count++; }
+        return count + count(middle + 1, last, low, high);
+    }
+
+    // Returns the next free index of rows
+    private int collect(int first, int last, int low, int high, int[] rows, int at) {
+
+        if (first > last) { return at; }
+
+        int middle = (first + last) >>> 1;
+        if (this.maxStops[middle] < low) { return at; }
+
+        at = collect(first, middle - 1, low, high, rows, at);
+        if (high < this.table.getStart(middle)) { return at; }
+        if (low <= this.table.getStop(middle)) { rows[at++] = middle; }
+        return collect(middle + 1, last, low, high, rows, at);
+    }
+
+    //endregion
+
+
+    //region getters
+
+    /**
+     * @return The table this index is over; its rows are sorted by range.
+     */
+    public NoteTable getTable() {
+        return this.table;
+    }
+
+    public int size() {
+        return this.table.size();
+    }
+
+    public boolean isEmpty() {
+        return this.table.isEmpty();
+    }
+
+    /**
+     * @return The last tick any note sounds at, or -1 if the index is empty.
+     * @see IntervalTree#getLastTick
+     */
+    public int getLastTick() {
+        return isEmpty() ? -1 : this.maxStops[(size() - 1) >>> 1];
+    }
+
+    //endregion
+
+
+}
@@ -17,7 +17,7 @@ public class NoteUtil {
      */
     public static ArrayList<Note> toList(List<String> strings) {
         ArrayList<Note> out = new ArrayList<>();
-        for (String str : strings) { out.add( NoteBuilder.builder().pitch(new Pitch(str)).build() ); }
+        for (String str : strings) { out.add( NoteBuilder.builder().pitch(Pitch.of(str)).build() ); }
         return out;
     }
 
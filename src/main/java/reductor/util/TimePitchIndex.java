@@ -0,0 +1,200 @@
+package reductor.util;
+
+import reductor.core.Note;
+import reductor.core.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/*
+ A two-dimensional (time x pitch) index over Notes.
+   - Construction in O(NlogN * logP) time, where P is the number of MIDI pitches (128)
+   - Queries ("sounding in [t1, t2] with pitch in [p1, p2]") in O(logP * logN + m) time
+   - No insertion or removal; index is constructed once, from fixed data
+*/
+
+/*
+Layout:
+
+    A segment tree over pitch, where every band (segment) holds an IntervalTree of the notes whose pitch falls
+    inside it. The root covers all of MIDI and is split into three bands that line up with the piano:
+
+                                       [0,127]
+                       ________________/  |  \________________
+                      /                   |                   \
+                  [0,20]              [21,108]             [109,127]
+                  /    \              /      \               /     \
+               [0,10] [11,20]    [21,64]   [65,108]     [109,118] [119,127]
+                 ...    ...        ...       ...           ...       ...
+
+    Below that, bands are halved down to single pitches. A pitch window [p1, p2] decomposes into at most
+    O(logP) bands that lie fully inside it; each of those bands is queried by time only, so nothing is ever
+    filtered by pitch after the fact. Each note is stored once per level (~8 times), and bands with no notes
+    are not built.
+*/
+
+
+public class TimePitchIndex {
+
+    // Covers all of MIDI
+    private final Band root;
+
+
+    public TimePitchIndex(List<Note> notes) {
+
+        if (notes == null) { throw new NullPointerException(""); }
+
+        Note[] byPitch = notes.toArray(new Note[0]);
+        for (Note note : byPitch) {
+            if (note.pitch() < PitchUtil.MIN_MIDI  ||  PitchUtil.MAX_MIDI < note.pitch()) {
+                throw new IllegalArgumentException("pitch outside of MIDI range: " + note);
+            }
+        }
+        // Stable, so each band receives its notes in input order (which is what IntervalTree dedupes against)
+        Arrays.sort(byPitch, Comparator.comparingInt(Note::pitch));
+
+        Band[] piano = {
+                band(PitchUtil.MIN_MIDI, PitchUtil.MIN_PIANO - 1, byPitch),
+                band(PitchUtil.MIN_PIANO, PitchUtil.MAX_PIANO, byPitch),
+                band(PitchUtil.MAX_PIANO + 1, PitchUtil.MAX_MIDI, byPitch)
+        };
+        this.root = new Band(PitchUtil.MIN_MIDI, PitchUtil.MAX_MIDI, Arrays.asList(byPitch), piano);
+    }
+
+
+    //region construction helpers
+
+    // Builds the band for [low, high] and everything under it, or returns null if no note falls inside it
+    private Band band(int low, int high, Note[] byPitch) {
+
+        int first = firstWithPitchAtLeast(byPitch, low);
+        int last = firstWithPitchAtLeast(byPitch, high + 1);
+        if (first == last) { return null; }
+
+        List<Note> notes = Arrays.asList(byPitch).subList(first, last);
+        if (low == high) { return new Band(low, high, notes, null); }
+
+        int middle = (low + high) >>> 1;
+        Band[] children = { band(low, middle, byPitch), band(middle + 1, high, byPitch) };
+        return new Band(low, high, notes, children);
+    }
+
+    private static int firstWithPitchAtLeast(Note[] byPitch, int pitch) {
+        int first = 0;
+        int last = byPitch.length;
+        while (first < last) {
+            int middle = (first + last) >>> 1;
+            if (byPitch[middle].pitch() < pitch) { first = middle + 1; } else { last = middle; }
+        }
+        return first;
+    }
+
+    //endregion
+
+
+    //region query methods
+
+    /**
+     * @return All notes overlapping {@code window} whose pitch is in [lowPitch, highPitch], grouped by pitch band
+     *     (i.e., roughly low to high) but otherwise in no particular order.
+     */
+    public List<Note> query(Range window, int lowPitch, int highPitch) {
+        List<Note> matches = new ArrayList<>();
+        query(window, lowPitch, highPitch, matches::add);
+        return matches;
+    }
+
+    /**
+     * Same as {@link #query(Range, int, int)}, but hands each match to {@code action} instead of collecting them.
+     */
+    public void query(Range window, int lowPitch, int highPitch, Consumer<? super Note> action) {
+        if (window == null) { throw new NullPointerException(); }
+        query(this.root, window, lowPitch, highPitch, action);
+    }
+
+    private void query(Band band, Range window, int lowPitch, int highPitch, Consumer<? super Note> action) {
+
+        // Base case (band not built), or band entirely outside the pitch window.
+        if (band == null  ||  highPitch < band.low  ||  band.high < lowPitch) { return; }
+
+        // Band entirely inside the pitch window: time is the only dimension left.
+        if (lowPitch <= band.low  &&  band.high <= highPitch) {
+            band.notes.query(window, action);
+            return;
+        }
+
+        for (Band child : band.children) { query(child, window, lowPitch, highPitch, action); }
+    }
+
+    /**
+     * @return The number of notes overlapping {@code window} whose pitch is in [lowPitch, highPitch], in
+     *     O(logP * logN) and without allocating.
+     */
+    public int count(Range window, int lowPitch, int highPitch) {
+        if (window == null) { throw new NullPointerException(); }
+        return count(this.root, window, lowPitch, highPitch);
+    }
+
+    private int count(Band band, Range window, int lowPitch, int highPitch) {
+
+        if (band == null  ||  highPitch < band.low  ||  band.high < lowPitch) { return 0; }
+
+        if (lowPitch <= band.low  &&  band.high <= highPitch) { return band.notes.countOverlapping(window); }
+
+        int count = 0;
+        for (Band child : band.children) { count += count(child, window, lowPitch, highPitch); }
+        return count;
+    }
+
+    //endregion
+
+
+    //region getters
+
+    /**
+     * @return True if this index is empty.
+     */
+    public boolean isEmpty() {
+        return this.root.notes.isEmpty();
+    }
+
+    /**
+     * @return The total number of notes in this index (each counted once, not once per band).
+     */
+    public int getSizeElements() {
+        return this.root.notes.getSizeElements();
+    }
+
+    //endregion
+
+
+    //region Band
+
+    // A segment of the pitch axis and the notes that fall inside it
+    private static class Band {
+
+        // Inclusive pitch bounds
+        private final int low;
+        private final int high;
+        // Notes with pitch in [low, high], indexed by time
+        private final IntervalTree<Note> notes;
+        // Sub-bands that partition [low, high] (entries are null where no note falls), or null for a single pitch
+        private final Band[] children;
+
+        Band(int low, int high, List<Note> notes, Band[] children) {
+            this.low = low;
+            this.high = high;
+            this.notes = new IntervalTree<>(notes);
+            this.children = children;
+        }
+
+    }
+
+    //endregion
+
+
+}
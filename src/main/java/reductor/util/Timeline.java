@@ -0,0 +1,138 @@
+package reductor.util;
+
+import reductor.core.Range;
+import reductor.core.Ranged;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/*
+ A step function over ticks: non-overlapping Ranged values (time signatures, key signatures, tempos), each in
+ effect over its own range.
+   - Construction in O(klogk) time (O(k) if the values are already in order)
+   - Lookups ("what is in effect at tick t") in O(logk) time, by binary search over a sorted int[] of starts
+   - Lookups at non-decreasing ticks in amortized O(1) time, through a Cursor
+   - No insertion or removal
+ k is usually tiny (a handful of meta events per piece), which is exactly why a whole IntervalTree, with a node
+ per element and a recursive descent per lookup, is overkill for these.
+*/
+
+
+public class Timeline<T extends Ranged> {
+
+    // starts[i], stops[i] (inclusive) is the range of values[i]; sorted, and never overlapping
+    private final int[] starts;
+    private final int[] stops;
+    private final Object[] values;
+
+
+    /**
+     * @param elements Values in any order. Of several values with the same range, the first is kept (it is the one
+     *                 an {@link IntervalTree}'s {@code findFirst} would have returned).
+     * @throws IllegalArgumentException If two values with different ranges overlap.
+     */
+    public Timeline(List<T> elements) {
+
+        if (elements == null) { throw new NullPointerException(""); }
+
+        // Stable, so the first of any same-range values is the one kept
+        Ranged[] sorted = elements.toArray(new Ranged[0]);
+        Arrays.sort(sorted, Comparator.comparing(Ranged::getRange));
+
+        int[] starts = new int[sorted.length];
+        int[] stops = new int[sorted.length];
+        Object[] values = new Object[sorted.length];
+        int size = 0;
+
+        for (Ranged value : sorted) {
+            Range range = value.getRange();
+            if (0 < size  &&  range.getLow() <= stops[size - 1]) {
+                if (range.getLow() == starts[size - 1]  &&  range.getHigh() == stops[size - 1]) { continue; }
+                throw new IllegalArgumentException("overlapping values: " + values[size - 1] + " and " + value);
+            }
+            starts[size] = range.getLow();
+            stops[size] = range.getHigh();
+            values[size] = value;
+            size++;
+        }
+
+        this.starts = Arrays.copyOf(starts, size);
+        this.stops = Arrays.copyOf(stops, size);
+        this.values = Arrays.copyOf(values, size);
+    }
+
+
+    //region lookups
+
+    /**
+     * @return The index of the value in effect at {@code tick}, or -1 if none is.
+     */
+    public int indexAt(int tick) {
+        int index = lastStartingBy(tick);
+        return 0 <= index  &&  tick <= this.stops[index] ? index : -1;
+    }
+
+    /**
+     * @return The value in effect at {@code tick}, or null if none is.
+     */
+    public T at(int tick) {
+        int index = indexAt(tick);
+        return index == -1 ? null : get(index);
+    }
+
+    /**
+     * A lookup position for scanning a Timeline left to right. Asking for the same or a later tick than last
+     * time walks forward from where it left off, so a whole left-to-right scan costs O(k) in total; asking for an
+     * earlier tick falls back to binary search. Not thread-safe; give each thread its own.
+     */
+    public class Cursor {
+
+        private int index = 0;
+
+        private Cursor() {}
+
+        /**
+         * @return The value in effect at {@code tick}, or null if none is.
+         */
+        public T at(int tick) {
+            if (this.index == size()  ||  tick < starts[this.index]) {
+                this.index = Math.max(0, lastStartingBy(tick));
+            }
+            while (this.index < size()  &&  stops[this.index] < tick) { this.index++; }
+            return this.index < size()  &&  starts[this.index] <= tick ? get(this.index) : null;
+        }
+    }
+
+    public Cursor cursor() { return new Cursor(); }
+
+    // The index of the last value starting at or before tick (-1 if none)
+    private int lastStartingBy(int tick) {
+        int index = Arrays.binarySearch(this.starts, tick);
+        return index >= 0 ? index : -(index + 1) - 1;
+    }
+
+    //endregion
+
+
+    //region getters
+
+    public int size() { return this.values.length; }
+
+    public boolean isEmpty() { return this.values.length == 0; }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) { return (T) this.values[index]; }
+
+    /** Returns the tick at which the value at {@code index} takes effect. */
+    public int getStart(int index) { return this.starts[index]; }
+
+    /** Returns the values, in order. */
+    @SuppressWarnings("unchecked")
+    public List<T> toList() { return (List<T>) (List<?>) List.of(this.values); }
+
+    //endregion
+
+
+}
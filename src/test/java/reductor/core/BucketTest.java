@@ -0,0 +1,69 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BucketTest {
+
+    private static Note note(int pitch, int start) {
+        return NoteBuilder.builder().pitch(pitch).range(start, start + 479).build();
+    }
+
+    @Test
+    void tracksOrder() {
+        Bucket bucket = new Bucket(List.of(note(64, 0), note(60, 0), note(67, 0)));
+        assertTrue(bucket.isSorted());
+        assertNull(bucket.getOrder());
+        assertEquals(List.of(60, 64, 67), bucket.stream().map(Note::pitch).toList());
+
+        bucket.add(note(72, 0));
+        assertTrue(bucket.isSorted());
+        bucket.add(note(50, 0));
+        assertEquals(50, bucket.getLast().pitch());
+        bucket.sort(null);
+        assertEquals(50, bucket.getFirst().pitch());
+
+        Comparator<Note> byStart = Comparator.comparingInt(Note::start);
+        bucket.sort(byStart);
+        assertSame(byStart, bucket.getOrder());
+        assertTrue(new Bucket(bucket).isSorted());
+        assertSame(byStart, new Bucket(bucket).getOrder());
+
+        assertThrows(UnsupportedOperationException.class, () -> bucket.getNotesView().add(note(40, 0)));
+    }
+
+    @Test
+    void mergeMatchesStableSortOfConcatenation() {
+        List<Bucket> buckets = new ArrayList<>();
+        List<Note> all = new ArrayList<>();
+        for (int b = 0; b < 5; b++) {
+            List<Note> notes = new ArrayList<>();
+            for (int i = 0; i < 20; i++) { notes.add(note(40 + (i * 7 + b * 3) % 24, b * 480)); }
+            Bucket bucket = new Bucket(notes);
+            buckets.add(bucket);
+            all.addAll(bucket);
+        }
+        // One input out of natural order, which merge must not change
+        buckets.get(2).sort(Comparator.comparingInt(Note::pitch).reversed());
+        List<Note> reversed = new ArrayList<>(buckets.get(2));
+
+        all.sort(null);
+        Bucket merged = Bucket.merge(buckets);
+        assertEquals(all.size(), merged.size());
+        for (int i = 0; i < all.size(); i++) { assertSame(all.get(i), merged.get(i)); }
+        assertTrue(merged.isSorted());
+        assertEquals(reversed, buckets.get(2));
+
+        Bucket filtered = Bucket.merge(buckets, note -> 480 <= note.start());
+        assertEquals(all.stream().filter(note -> 480 <= note.start()).toList(), filtered);
+        assertTrue(Bucket.merge(List.of()).isEmpty());
+    }
+
+}
@@ -0,0 +1,63 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ColumnFeaturesTest {
+
+    @Test
+    void columnFeatures() {
+        List<Note> notes = new ArrayList<>();
+        for (String pitch : List.of("C3", "E3", "G4", "C5")) {
+            notes.add(NoteBuilder.builder().pitch(pitch).range(480, 959).build());
+        }
+        notes.add(NoteBuilder.builder().pitch("G3").range(0, 959).build());
+        Column column = new Column(notes, new Range(480, 959));
+
+        ColumnFeatures features = column.getFeatures();
+        assertEquals(48, features.low());
+        assertEquals(72, features.high());
+        assertEquals(24, features.span());
+        assertEquals(55, features.median());
+        assertEquals((48 + 52 + 55 + 67 + 72) / 5.0, features.mean());
+        assertEquals(0b0000_1001_0001, features.pitchClassMask());
+        assertEquals(3, features.pitchClassCount());
+        assertEquals(5, features.count());
+        assertEquals(1, features.holdovers());
+
+        assertEquals(features.span(), column.getOverallSpan());
+        assertEquals(features.median(), column.getMedianPitch());
+        assertEquals(58, column.getMeanPitch());
+
+        assertSame(ColumnFeatures.EMPTY, new Column(new ArrayList<>(), new Range()).getFeatures());
+    }
+
+    @Test
+    void pieceFeatures() {
+        Piece piece = TestPieces.piece(List.of(
+                NoteBuilder.builder().pitch("C4").range(0, 479).build(),
+                NoteBuilder.builder().pitch("E5").range(0, 479).build(),
+                NoteBuilder.builder().pitch("A2").range(480, 959).build(),
+                NoteBuilder.builder().pitch("G4").range(960, 1439).build()
+        ), new Range(0, 1919));
+
+        PieceFeatures features = piece.getFeatures();
+        assertEquals(piece.getColumns().size(), features.size());
+        assertEquals(45, features.getLowest());
+        assertEquals(76, features.getHighest());
+        assertEquals(1, features.countSpansOver(12));
+        assertEquals(1, features.indexAt(700));
+        assertEquals(480, features.getStart(1));
+        assertEquals(1 | 1 << 4 | 1 << 7 | 1 << 9, features.pitchClassesBetween(0, features.size()));
+        for (int i = 0; i < features.size(); i++) {
+            assertEquals(piece.getColumns().get(i).getFeatures().median(), features.getMedian(i));
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import reductor.util.NoteUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -250,6 +251,48 @@ class ColumnTest {
         assertEquals(new Pitch("Eb4").value(), c.getSplitPointPitch());
     }
 
+    @Test
+    void handsAreSplitOnFirstUse() {
+        Column c = new Column( NoteUtil.toList( List.of("C3", "C5") ), new Range());
+        assertNull(c.LH, "nothing is split on construction");
+
+        // A re-split replaces the pending default split rather than following it
+        assertTrue(c.splitHands(column -> column.assignHands(new Hand[]{ Hand.RIGHT, Hand.RIGHT })));
+        assertEquals(2, c.getRightHand().size());
+        assertEquals(0, c.getLeftHand().size());
+        assertFalse(c.getRightHand().splitHands(HandSplitter::splitDefault), "hand Columns have no hands");
+
+        Column d = new Column( NoteUtil.toList( List.of("C3", "C5") ), new Range());
+        Column hand = d.getLeftHand();
+        assertSame(hand, d.getLeftHand(), "split only once");
+        assertEquals(1, hand.size());
+    }
+
+    @Test
+    void changingNotesResplits() {
+        Column c = new Column( NoteUtil.toList( List.of("C3", "C5") ), new Range());
+        assertEquals(1, c.getRightHand().size());
+        assertEquals(24, c.getSplitSpan());
+
+        // Below everything, so the thumbs' indexes shift
+        c.add(NoteUtil.toList(List.of("C2")).getFirst());
+        assertEquals(2, c.getLeftHand().size());
+        assertEquals(24, c.getSplitSpan());
+
+        c.remove(0);
+        assertEquals(1, c.getLeftHand().size());
+        assertEquals(c.size(), c.getLeftHand().size() + c.getMiddle().size() + c.getRightHand().size());
+
+        // A HandSplitter's strategy is asked again too
+        HandSplitter.local("all left", notes -> {
+            Hand[] hands = new Hand[notes.size()];
+            Arrays.fill(hands, Hand.LEFT);
+            return hands;
+        }).split(List.of(c), null);
+        c.add(NoteUtil.toList(List.of("C6")).getFirst());
+        assertEquals(3, c.getLeftHand().size());
+    }
+
     //@Test
     //void chopinPreludeCMinor() {
     //
@@ -0,0 +1,79 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class HandSplitterTest {
+
+    // One chord (C3, G3, E4, C5) per quarter note, over enough columns to be split in parallel
+    private static Piece chords(int count) {
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            for (String pitch : List.of("C3", "G3", "E4", "C5")) {
+                notes.add(NoteBuilder.builder().pitch(pitch).range(i * 480, i * 480 + 479).build());
+            }
+        }
+        return TestPieces.piece(notes, new Range(0, count * 480));
+    }
+
+    @Test
+    void localStrategyInParallel() {
+        Piece piece = chords(4 * HandSplitter.PARALLEL_THRESHOLD);
+        Measure measure = piece.getMeasures().getFirst();
+        assertEquals(8, measure.getLhNotes().size());
+        assertEquals(8, measure.getRhNotes().size());
+
+        HandSplitter allRight = HandSplitter.local("all right", notes -> {
+            Hand[] hands = new Hand[notes.size()];
+            Arrays.fill(hands, Hand.RIGHT);
+            return hands;
+        });
+
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            allRight.split(piece, pool);
+        }
+
+        for (Column column : piece.getColumns()) {
+            assertEquals(column.size(), column.getRightHand().size());
+            assertEquals(0, column.getLeftHand().size());
+        }
+        assertEquals(List.of(), measure.getLhNotes(), "measure views are rebuilt after a split");
+
+        HandSplitter.Timing timing = allRight.getTiming();
+        assertEquals(1, timing.runs());
+        assertEquals(piece.getColumns().size(), timing.columns());
+        assertTrue(0 < timing.wallNanos());
+    }
+
+    @Test
+    void windowedStrategySeesNeighbours() {
+        Piece piece = chords(5);
+        List<Column> columns = piece.getColumns();
+
+        // Everything to the left hand, except in columns with a neighbour on both sides
+        HandSplitter edges = HandSplitter.windowed("edges", 1, (window, index) -> {
+            Hand hand = window.size() == 3 ? Hand.RIGHT : Hand.LEFT;
+            Hand[] hands = new Hand[window.get(index).size()];
+            Arrays.fill(hands, hand);
+            return hands;
+        });
+        edges.split(columns, null);
+
+        assertEquals(4, columns.getFirst().getLeftHand().size());
+        assertEquals(4, columns.get(2).getRightHand().size());
+        assertEquals(4, columns.getLast().getLeftHand().size());
+        assertTrue(edges.isWindowed());
+
+        HandSplitter wrongSize = HandSplitter.local("wrong", notes -> new Hand[0]);
+        assertThrows(IllegalArgumentException.class, () -> wrongSize.split(columns, null));
+    }
+
+}
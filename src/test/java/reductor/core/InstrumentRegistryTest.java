@@ -0,0 +1,61 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class InstrumentRegistryTest {
+
+    @Test
+    void idsAreStableAndShared() {
+        int violin = InstrumentRegistry.idOf("InstrumentRegistryTest Violin");
+        assertEquals(violin, InstrumentRegistry.idOf("InstrumentRegistryTest Violin"));
+        assertEquals(violin, InstrumentRegistry.find("InstrumentRegistryTest Violin"));
+        assertEquals("InstrumentRegistryTest Violin", InstrumentRegistry.nameOf(violin));
+
+        assertEquals(InstrumentRegistry.NONE, InstrumentRegistry.idOf(null));
+        assertEquals(InstrumentRegistry.NONE, InstrumentRegistry.idOf(""));
+        assertFalse(InstrumentRegistry.getNames().contains(""));
+        Note unnamed = NoteBuilder.builder().pitch("A4").range(0, 479).build();
+        assertEquals(InstrumentRegistry.NONE, unnamed.getInstrumentId());
+        assertEquals(InstrumentRegistry.NONE, InstrumentRegistry.find("InstrumentRegistryTest never registered"));
+        assertThrows(IllegalArgumentException.class, () -> InstrumentRegistry.nameOf(InstrumentRegistry.size()));
+
+        Note note = NoteBuilder.builder().pitch("A4").range(0, 479).instrument("InstrumentRegistryTest Violin").build();
+        assertEquals(violin, note.getInstrumentId());
+        assertEquals(violin, note.setPitch(70).getInstrumentId());
+    }
+
+    @Test
+    void containerMasks() {
+        List<Note> notes = List.of(
+                NoteBuilder.builder().pitch("C5").range(0, 479).instrument("InstrumentRegistryTest Flute").build(),
+                NoteBuilder.builder().pitch("C3").range(0, 959).instrument("InstrumentRegistryTest Cello").build(),
+                NoteBuilder.builder().pitch("E5").range(480, 959).instrument("InstrumentRegistryTest Flute").build(),
+                NoteBuilder.builder().pitch("G5").range(1920, 2399).instrument("InstrumentRegistryTest Flute").build()
+        );
+        int flute = InstrumentRegistry.find("InstrumentRegistryTest Flute");
+        int cello = InstrumentRegistry.find("InstrumentRegistryTest Cello");
+
+        Piece piece = TestPieces.piece(notes, new Range(0, 3839));
+
+        assertTrue(piece.hasInstrument(flute));
+        assertTrue(piece.hasInstrument(cello));
+        assertEquals(2, piece.getInstrumentMask().cardinality());
+        assertTrue(piece.getInstruments().contains("InstrumentRegistryTest Cello"));
+
+        // The cello is held into the second column, but does not reach the second measure
+        assertEquals(2, piece.getColumns(cello).size());
+        assertEquals(1, piece.getMeasures(cello).size());
+        assertEquals(piece.getColumns().size(), piece.getColumns(flute).size());
+
+        Column first = piece.getColumns().getFirst();
+        assertEquals(List.of(notes.get(1)), first.getNotes(cello));
+        assertFalse(first.hasInstrument(InstrumentRegistry.NONE));
+    }
+
+}
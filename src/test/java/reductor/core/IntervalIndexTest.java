@@ -0,0 +1,97 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.IntervalIndex;
+import reductor.util.IntervalTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Unit tests for {@link IntervalIndex}. Mostly checks that it answers exactly what {@link IntervalTree} answers.
+ */
+class IntervalIndexTest {
+
+    @Test
+    void constructionFromNull() {
+        assertThrows(NullPointerException.class, () -> new IntervalIndex<>(null), "should throw when passed null");
+    }
+
+    @Test
+    void constructionWithEmptyList() {
+        IntervalIndex<Note> index = new IntervalIndex<>(new ArrayList<>());
+        assertTrue(index.isEmpty());
+        assertEquals(0, index.getSizeElements());
+        assertEquals(List.of(), index.query(0));
+        assertEquals(List.of(), index.query(new Range(0, 100)));
+    }
+
+    @Test
+    void duplicatesAreDroppedButSameRangeDifferentDataIsKept() {
+        Note c = NoteBuilder.of("C4", 0, 479);
+        Note d = NoteBuilder.of("D4", 0, 479);
+        Note cAgain = NoteBuilder.from(c).build();
+
+        IntervalIndex<Note> index = new IntervalIndex<>(List.of(c, d, cAgain));
+
+        assertEquals(2, index.getSizeElements());
+        assertEquals(List.of(c, d), index.query(240));
+    }
+
+    @Test
+    void queryWithPoint() {
+
+        Range qtr1 = new Range(0,479);
+        Range qtrSync = new Range(240, 719);
+        Range qtr2 = new Range(480,959);
+
+        IntervalIndex<Range> index = new IntervalIndex<>(List.of(qtr2, qtr1, qtrSync));
+
+        assertEquals(List.of(), index.query(-1));
+        assertEquals(List.of(qtr1), index.query(0));
+        assertEquals(List.of(qtr1, qtrSync), index.query(240));
+        assertEquals(List.of(qtrSync, qtr2), index.query(480));
+        assertEquals(List.of(qtr2), index.query(720));
+        assertEquals(List.of(), index.query(960));
+
+        assertEquals(959, index.getLastTick());
+        assertEquals(0, index.getFirstTick());
+    }
+
+    @Test
+    void matchesIntervalTree() {
+
+        Random random = new Random(42);
+
+        for (int trial = 0; trial < 100; trial++) {
+
+            List<Range> ranges = new ArrayList<>();
+            int n = random.nextInt(200);
+            for (int i = 0; i < n; i++) {
+                int low = random.nextInt(500);
+                ranges.add(new Range(low, low + 1 + random.nextInt(100)));
+            }
+
+            IntervalTree<Range> tree = new IntervalTree<>(ranges);
+            IntervalIndex<Range> index = new IntervalIndex<>(ranges);
+
+            assertEquals(tree.getSizeElements(), index.getSizeElements());
+            assertEquals(tree.toList(), index.toList());
+
+            for (int point = 0; point < 650; point += 7) {
+                assertEquals(tree.query(point), index.query(point));
+
+                Range window = new Range(point, point + 25);
+                List<Range> expected = new ArrayList<>(tree.query(window));
+                expected.sort(null);
+                assertEquals(expected, index.query(window));
+            }
+        }
+    }
+
+}
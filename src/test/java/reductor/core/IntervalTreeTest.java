@@ -1,16 +1,23 @@
 package reductor.core;
 
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reductor.core.builders.NoteBuilder;
 import reductor.util.IntervalTree;
 import reductor.util.IntervalTree.Node;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 
 /**
@@ -256,6 +263,249 @@ class IntervalTreeTest<T extends Ranged> {
         assertEquals(List.of(), tree.query(961));
     }
 
+    @Test
+    void parallelConstructionMatchesSequential() {
+
+        Random random = new Random(42);
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int low = random.nextInt(1_000_000);
+            ranges.add(new Range(low, low + 1 + random.nextInt(2_000)));
+        }
+
+        IntervalTree<Range> sequential = new IntervalTree<>(ranges);
+        IntervalTree<Range> parallel;
+        try (var pool = new ForkJoinPool(4)) {
+            parallel = new IntervalTree<>(ranges, pool);
+        }
+
+        assertMaxesAreCorrect(parallel);
+        assertTrue(isInOrder(parallel));
+        assertEquals(sequential.getSizeNodes(), parallel.getSizeNodes());
+        assertEquals(sequential.getSizeElements(), parallel.getSizeElements());
+        assertEquals(sequential.toList(), parallel.toList());
+        assertEquals(sequential.getRoot().getRange(), parallel.getRoot().getRange());
+        for (int point = 0; point < 1_000_000; point += 9_973) {
+            assertEquals(sequential.query(point), parallel.query(point));
+        }
+    }
+
+    @Test
+    void sequentialConstructionStaysOnTheCallingThread() {
+
+        // Distinct ranges, well above the parallel threshold
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) { ranges.add(new Range(i * 10, i * 10 + 5)); }
+
+        long steals = ForkJoinPool.commonPool().getStealCount();
+        IntervalTree<Range> tree = new IntervalTree<>(ranges);
+
+        assertEquals(steals, ForkJoinPool.commonPool().getStealCount(), "tree was built in the common pool");
+        assertEquals(ranges.size(), tree.getSizeNodes());
+        assertMaxesAreCorrect(tree);
+    }
+
+    @Test
+    void callbackQueriesMatchListQueries() {
+
+        ArrayList<Note> distinctPlusQuasiDups = new ArrayList<>();
+        distinctPlusQuasiDups.addAll(uniqueElements);
+        distinctPlusQuasiDups.addAll(halfDuplicates);
+        IntervalTree<Note> tree = new IntervalTree<>(distinctPlusQuasiDups);
+
+        List<Note> sink = new ArrayList<>();
+        for (int point = -1; point < 35; point++) {
+
+            List<Note> visited = new ArrayList<>();
+            tree.query(point, visited::add);
+            visited.sort(null);
+            assertEquals(tree.query(point), visited);
+
+            sink.clear();
+            tree.queryInto(point, sink);
+            sink.sort(null);
+            assertEquals(tree.query(point), sink);
+
+            // findFirst is the lowest range containing the point
+            Note first = tree.findFirst(point);
+            List<Note> byRange = new ArrayList<>(tree.query(point));
+            byRange.sort(Comparator.comparing(Note::getRange));
+            if (byRange.isEmpty()) {
+                assertNull(first);
+            } else {
+                assertEquals(byRange.getFirst().getRange(), first.getRange());
+            }
+        }
+    }
+
+    @Test
+    void queryAllMatchesOneQueryPerWindow() {
+
+        Random random = new Random(42);
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int low = random.nextInt(5_000);
+            ranges.add(new Range(low, low + 1 + random.nextInt(800)));
+        }
+        IntervalTree<Range> tree = new IntervalTree<>(ranges);
+
+        // Adjacent windows of uneven width, like columns
+        List<Range> windows = new ArrayList<>();
+        int low = 0;
+        while (low < 6_000) {
+            int high = low + random.nextInt(200);
+            windows.add(new Range(low, high + 1));
+            low = high + 2;
+        }
+
+        List<List<Range>> grouped = tree.queryAll(windows);
+        assertEquals(windows.size(), grouped.size());
+        for (int i = 0; i < windows.size(); i++) {
+            List<Range> expected = new ArrayList<>(tree.query(windows.get(i)));
+            List<Range> actual = new ArrayList<>(grouped.get(i));
+            expected.sort(null);
+            actual.sort(null);
+            assertEquals(expected, actual, "window " + windows.get(i));
+        }
+
+        assertEquals(List.of(), tree.queryAll(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> tree.queryAll(List.of(new Range(100, 200), new Range(0, 50))));
+    }
+
+    @Test
+    void countsMatchQuerySizes() {
+
+        Random random = new Random(42);
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int low = random.nextInt(5_000);
+            // Few pitches so that plenty of notes share a range (and therefore a node)
+            notes.add(NoteBuilder.of(List.of("C4", "D4", "E4").get(random.nextInt(3)), low, low + 1 + random.nextInt(300)));
+        }
+        IntervalTree<Note> tree = new IntervalTree<>(notes);
+
+        for (int point = -1; point < 5_500; point += 11) {
+            assertEquals(tree.query(point).size(), tree.countAt(point), "point " + point);
+            if (point < 0) { continue; }
+            Range window = new Range(point, point + 1 + random.nextInt(100));
+            assertEquals(tree.query(window).size(), tree.countOverlapping(window), "window " + window);
+            assertEquals(!tree.query(window).isEmpty(), tree.anyOverlapping(window), "window " + window);
+        }
+
+        IntervalTree<Note> empty = new IntervalTree<>(new ArrayList<>());
+        assertEquals(0, empty.countAt(0));
+        assertEquals(0, empty.countOverlapping(new Range(0, 100)));
+        assertFalse(empty.anyOverlapping(new Range(0, 100)));
+    }
+
+    @Test
+    void navigationMatchesLinearScan() {
+
+        Random random = new Random(42);
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int low = random.nextInt(3_000);
+            ranges.add(new Range(low, low + 1 + random.nextInt(400)));
+        }
+        IntervalTree<Range> tree = new IntervalTree<>(ranges);
+        List<Range> byLow = tree.toList();
+
+        for (int tick = -1; tick < 3_500; tick += 7) {
+            final int t = tick;
+            Range ceiling = byLow.stream().filter(r -> t <= r.getLow()).findFirst().orElse(null);
+            Range next = byLow.stream().filter(r -> t < r.getLow()).findFirst().orElse(null);
+            Range floor = byLow.stream().filter(r -> r.getLow() <= t).reduce((a, b) -> b).orElse(null);
+            Range prev = byLow.stream().filter(r -> r.getHigh() < t)
+                    .max(Comparator.comparingInt(Range::getHigh).thenComparingInt(Range::getLow)).orElse(null);
+
+            assertEquals(ceiling, tree.ceilingByLow(tick), "ceiling " + tick);
+            assertEquals(next, tree.nextStartAfter(tick), "next " + tick);
+            assertEquals(floor, tree.floorByLow(tick), "floor " + tick);
+            assertEquals(prev, tree.prevEndBefore(tick), "prev " + tick);
+        }
+    }
+
+    @Test
+    void cursorWalksInOrderAndAdvances() {
+
+        List<Note> notes = new ArrayList<>(uniqueElements);
+        notes.addAll(halfDuplicates);
+        IntervalTree<Note> tree = new IntervalTree<>(notes);
+
+        List<Note> walked = new ArrayList<>();
+        IntervalTree<Note>.Cursor cursor = tree.cursor();
+        while (cursor.hasNext()) { walked.add(cursor.next()); }
+        assertEquals(tree.toList(), walked);
+        assertNull(cursor.peek());
+
+        // [5,30], [7,20], then the [10,x] nodes
+        cursor = tree.cursor().advanceTo(8);
+        assertEquals(new Range(10, 15), cursor.next().getRange());
+        assertEquals(new Range(10, 15), cursor.peek().getRange(), "second element of the same node");
+        cursor.advanceTo(0);
+        assertEquals(new Range(10, 15), cursor.next().getRange(), "advancing backwards should do nothing");
+        cursor.advanceTo(11);
+        assertEquals(new Range(12, 30), cursor.next().getRange());
+        cursor.advanceTo(100);
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+    }
+
+    @Test
+    void stabbingLookupsDoNotAllocate() {
+
+        // Per-thread allocation counting is a HotSpot extension; other VMs skip this
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) { ranges.add(new Range(i * 480, i * 480 + 479)); }
+        IntervalTree<Range> tree = new IntervalTree<>(ranges);
+
+        int[] points = new Random(42).ints(10_000, 0, 10_000 * 480).toArray();
+        long[] hits = new long[1];
+        Consumer<Range> counter = r -> hits[0]++;
+
+        // Let the JIT settle before measuring
+        for (int round = 0; round < 20; round++) {
+            for (int point : points) {
+                if (tree.findFirst(point) != null) { hits[0]++; }
+                tree.query(point, counter);
+            }
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int point : points) {
+            if (tree.findFirst(point) != null) { hits[0]++; }
+            tree.query(point, counter);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(hits[0] > 0);
+        // Generous, for JIT and VM noise: even an empty ArrayList per lookup would be 24 bytes each, 240 KB here
+        assertTrue(allocated < 4L * points.length, "stabbing lookups allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void stabbingLookupsMatchListQueries() {
+
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) { ranges.add(new Range(i * 480, i * 480 + 479)); }
+        IntervalTree<Range> tree = new IntervalTree<>(ranges);
+
+        List<Range> visited = new ArrayList<>();
+        Consumer<Range> collector = visited::add;
+        for (int point : new Random(42).ints(10_000, -1, 10_000 * 480 + 1).toArray()) {
+            visited.clear();
+            tree.query(point, collector);
+            List<Range> expected = tree.query(point);
+            assertEquals(expected, visited, "point " + point);
+            assertEquals(expected.isEmpty() ? null : expected.getFirst(), tree.findFirst(point), "point " + point);
+        }
+    }
+
     // convenience
     private <E extends Ranged> void assertMaxesAreCorrect(IntervalTree<E> tree) {
         assertMaxesAreCorrect(tree.getRoot());
@@ -0,0 +1,44 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MeasureTest {
+
+    @Test
+    void noteViewsAreCachedUntilInvalidated() {
+        Piece piece = TestPieces.piece(List.of(
+                NoteBuilder.builder().pitch("G4").range(0, 479).build(),
+                NoteBuilder.builder().pitch("C4").range(0, 2399).build(),
+                NoteBuilder.builder().pitch("E4").range(480, 959).build(),
+                NoteBuilder.builder().pitch("C5").range(1920, 2399).build()
+        ), new Range(0, 3839));
+
+        Measure first = piece.getMeasures().getFirst();
+        List<Note> proper = first.getNotesProper();
+
+        // The C4 is in both columns (held over in the second); it should be in the view once
+        Set<Note> expected = new TreeSet<>(Comparator.comparingInt(Note::pitch).thenComparing(Note::getRange));
+        expected.addAll(first.getNotesView());
+        assertEquals(4, first.size());
+        assertEquals(new ArrayList<>(expected), proper);
+        assertEquals(List.of(60, 64, 67), proper.stream().map(Note::pitch).toList());
+
+        assertSame(proper.getFirst(), first.getNotesProper().getFirst(), "views are built once");
+        assertThrows(UnsupportedOperationException.class, () -> proper.add(proper.getFirst()));
+        assertTrue(first.getRhNotes().stream().allMatch(note -> note.getHand() == Hand.RIGHT));
+
+        first.invalidateHandViews();
+        assertEquals(proper, first.getNotesProper());
+    }
+
+}
@@ -0,0 +1,98 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.IntervalTree;
+import reductor.util.MutableIntervalTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Unit tests for {@link MutableIntervalTree}. After any sequence of edits, it should answer queries exactly
+ * like an {@link IntervalTree} built from scratch on the same data.
+ */
+class MutableIntervalTreeTest {
+
+    @Test
+    void insertAndRemoveUpdateSizes() {
+        Note c = NoteBuilder.of("C4", 0, 479);
+        Note d = NoteBuilder.of("D4", 0, 479);
+        Note e = NoteBuilder.of("E4", 480, 959);
+
+        MutableIntervalTree<Note> tree = new MutableIntervalTree<>();
+        assertTrue(tree.isEmpty());
+
+        assertTrue(tree.insert(c));
+        assertTrue(tree.insert(d));
+        assertTrue(tree.insert(e));
+        assertFalse(tree.insert(NoteBuilder.from(c).build()), "exact duplicates should not be added");
+        assertEquals(2, tree.getSizeNodes());
+        assertEquals(3, tree.getSizeElements());
+        assertEquals(959, tree.getLastTick());
+
+        assertTrue(tree.remove(e));
+        assertFalse(tree.remove(e), "removing something absent should report no change");
+        assertEquals(1, tree.getSizeNodes());
+        assertEquals(2, tree.getSizeElements());
+        assertEquals(479, tree.getLastTick());
+
+        assertTrue(tree.remove(c));
+        assertTrue(tree.remove(d));
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.getSizeNodes());
+        assertEquals(List.of(), tree.query(0));
+    }
+
+    @Test
+    void staysBalancedForSortedInput() {
+        List<Range> ranges = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) { ranges.add(new Range(i * 10, i * 10 + 479)); }
+
+        MutableIntervalTree<Range> tree = new MutableIntervalTree<>(ranges);
+
+        // log2(100_000) is ~17; a treap's expected height is within a small constant factor of that
+        assertTrue(tree.getHeight() < 60, "height was " + tree.getHeight());
+    }
+
+    @Test
+    void matchesRebuiltIntervalTreeAfterEdits() {
+
+        Random random = new Random(42);
+        MutableIntervalTree<Range> tree = new MutableIntervalTree<>();
+        List<Range> live = new ArrayList<>();
+
+        for (int step = 0; step < 2_000; step++) {
+
+            if (live.isEmpty() || random.nextInt(3) != 0) {
+                int low = random.nextInt(1_000);
+                Range range = new Range(low, low + 1 + random.nextInt(200));
+                if (tree.insert(range)) { live.add(range); }
+            } else {
+                Range range = live.remove(random.nextInt(live.size()));
+                assertTrue(tree.remove(range));
+            }
+
+            if (step % 100 != 0) { continue; }
+
+            IntervalTree<Range> rebuilt = new IntervalTree<>(live);
+            assertEquals(rebuilt.getSizeElements(), tree.getSizeElements());
+            assertEquals(rebuilt.getSizeNodes(), tree.getSizeNodes());
+            assertEquals(rebuilt.toList(), tree.toList());
+
+            for (int point = 0; point < 1_250; point += 13) {
+                assertEquals(rebuilt.query(point), tree.query(point));
+
+                Range window = new Range(point, point + 40);
+                List<Range> expected = new ArrayList<>(rebuilt.query(window));
+                expected.sort(null);
+                assertEquals(expected, tree.query(window));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.IntervalTree;
+import reductor.util.NoteIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Unit tests for {@link NoteIndex}. Mostly checks that it answers exactly what {@link IntervalTree} answers, with
+ * rows standing in for Notes.
+ */
+class NoteIndexTest {
+
+    @Test
+    void constructionWithEmptyList() {
+        NoteIndex index = NoteIndex.of(new ArrayList<>(), 480, null);
+        assertTrue(index.isEmpty());
+        assertEquals(-1, index.getLastTick());
+        assertEquals(0, index.rowsOverlapping(new Range(0, 100)).length);
+        assertEquals(0, index.countAt(0));
+        assertFalse(index.anyOverlapping(new Range(0, 100)));
+        assertThrows(NullPointerException.class, () -> NoteIndex.of(null, 480, null));
+    }
+
+    @Test
+    void rowsMustBeSortedByRange() {
+        NoteTable unsorted = new NoteTable(List.of(NoteBuilder.of("C4", 480, 959), NoteBuilder.of("D4", 0, 479)));
+        assertThrows(IllegalArgumentException.class, () -> new NoteIndex(unsorted));
+    }
+
+    @Test
+    void duplicatesAreDroppedButSameRangeDifferentDataIsKept() {
+        Note c = NoteBuilder.of("C4", 0, 479);
+        Note d = NoteBuilder.of("D4", 0, 479);
+        Note cAgain = NoteBuilder.from(c).build();
+
+        NoteIndex index = NoteIndex.of(List.of(d, c, cAgain), 480, null);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(d, c), index.query(new Range(240, 241)));
+    }
+
+    @Test
+    void matchesIntervalTree() {
+
+        Random random = new Random(42);
+
+        for (int trial = 0; trial < 100; trial++) {
+
+            List<Note> notes = new ArrayList<>();
+            int n = random.nextInt(200);
+            for (int i = 0; i < n; i++) {
+                int low = random.nextInt(500);
+                notes.add(NoteBuilder.builder()
+                        .pitch(40 + random.nextInt(40))
+                        .range(new Range(low, low + 1 + random.nextInt(100)))
+                        .build());
+            }
+
+            IntervalTree<Note> tree = new IntervalTree<>(notes);
+            NoteIndex index = NoteIndex.of(notes, 480, null);
+
+            assertEquals(tree.getSizeElements(), index.size());
+            assertEquals(tree.toList(), index.getTable().getNotes());
+            if (!notes.isEmpty()) { assertEquals(tree.getLastTick(), index.getLastTick()); }
+
+            for (int point = 0; point < 650; point += 7) {
+                assertEquals(tree.countAt(point), index.countAt(point));
+
+                Range window = new Range(point, point + 25);
+                // Tree order and range order differ, so compare both in one total order
+                Comparator<Note> byPitchThenRange = Comparator.comparingInt(Note::pitch).thenComparing(Note::getRange);
+                List<Note> expected = new ArrayList<>(tree.query(window));
+                expected.sort(byPitchThenRange);
+                List<Note> actual = index.query(window);
+                actual.sort(byPitchThenRange);
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals(tree.anyOverlapping(window), index.anyOverlapping(window));
+            }
+        }
+    }
+
+}
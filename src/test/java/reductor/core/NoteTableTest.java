@@ -0,0 +1,79 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Unit tests for {@link NoteTable}. Views should carry exactly what the notes the table was built from carried.
+ */
+class NoteTableTest {
+
+    @Test
+    void viewsRoundTrip() {
+        List<Note> notes = List.of(
+                NoteBuilder.builder().pitch("C4").range(0, 479).instrument("Violin I").build(),
+                NoteBuilder.builder().pitch("G2").range(0, 959).instrument("Cello").isHeld(true).hand(Hand.LEFT).build(),
+                NoteBuilder.builder().pitch(127).range(480, 599).instrument("Violin I").hand(Hand.RIGHT).build(),
+                new Note(new Range(600, 719), Rhythm.fromRange(new Range(600, 719)), Pitch.of(0), null, false, null)
+        );
+
+        NoteTable table = new NoteTable(notes);
+
+        assertEquals(notes.size(), table.size());
+        assertEquals(Arrays.asList("Violin I", "Cello", null), table.getInstruments());
+        assertEquals(0, table.getInstrumentIndex(2));
+
+        for (int i = 0; i < notes.size(); i++) {
+            Note expected = notes.get(i);
+            Note view = table.get(i);
+            assertEquals(expected, view);
+            assertEquals(expected.getRange(), view.getRange());
+            assertEquals(expected.getSourceInstrument(), view.getSourceInstrument());
+            assertEquals(expected.getIsHeld(), view.getIsHeld());
+            assertEquals(expected.getHand(), view.getHand());
+            assertEquals(expected.getRhythm().getDuration(), view.getRhythm().getDuration());
+            assertSame(expected.getPitch(), view.getPitch(), "views should share their notes' pitches");
+            assertEquals(expected.getInstrumentId(), table.getInstrumentId(i));
+        }
+
+        assertEquals(notes, table.getNotes());
+    }
+
+    @Test
+    void viewsKeepSpellings() {
+        Note sharp = NoteBuilder.builder().pitch("C#4").range(0, 479).build();
+        Note flat = NoteBuilder.builder().pitch("Db4").range(480, 959).build();
+
+        NoteTable table = new NoteTable(List.of(sharp, flat));
+
+        assertEquals(table.getPitch(0), table.getPitch(1));
+        assertEquals("C#4", table.get(0).getPitch().toString());
+        assertEquals("Db4", table.get(1).getPitch().toString());
+    }
+
+    @Test
+    void viewsUseTheTablesResolution() {
+        // A quarter at 96 ticks per quarter, but a tied odd length at the default 480
+        Note note = NoteBuilder.builder().pitch("C4").range(0, 95).resolution(96).build();
+        assertFalse(note.getRhythm().isTied());
+
+        assertEquals(note.getRhythm(), new NoteTable(List.of(note), 96).get(0).getRhythm());
+        assertTrue(new NoteTable(List.of(note), 480).get(0).getRhythm().isTied());
+    }
+
+    @Test
+    void emptyTable() {
+        NoteTable table = new NoteTable(new ArrayList<>());
+        assertTrue(table.isEmpty());
+        assertEquals(List.of(), table.getNotes());
+        assertThrows(NullPointerException.class, () -> new NoteTable(null));
+    }
+
+}
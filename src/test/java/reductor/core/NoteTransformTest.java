@@ -0,0 +1,93 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class NoteTransformTest {
+
+    @Test
+    void changesFieldsAndSharesTheRest() {
+        Note note = NoteBuilder.builder().pitch("C4").range(0, 479).instrument("Flute").build();
+
+        Note moved = NoteTransform.identity().shift(480).transpose(2).markHeld(true).hand(Hand.RIGHT).apply(note);
+        assertEquals(new Range(480, 959), moved.getRange());
+        assertEquals(62, moved.pitch());
+        assertTrue(moved.getIsHeld());
+        assertEquals(Hand.RIGHT, moved.getHand());
+        assertEquals("Flute", moved.getSourceInstrument());
+        assertEquals(note.duration(), moved.duration());
+
+        Note held = NoteTransform.identity().markHeld(true).apply(note);
+        assertSame(note.getRange(), held.getRange());
+        assertSame(note.getPitch(), held.getPitch());
+
+        assertSame(note, NoteTransform.identity().apply(note));
+        assertSame(held, NoteTransform.identity().markHeld(true).apply(held), "unchanged notes are not copied");
+    }
+
+    @Test
+    void newLengthsKeepTheResolution() {
+        // An eighth at 96 ticks per quarter; a quarter once doubled (at the default 480, a tied odd length)
+        Note eighth = NoteBuilder.builder().pitch("C4").range(0, 47).resolution(96).build();
+        Note quarter = eighth.setRange(new Range(0, 95));
+        assertEquals(96, quarter.getRhythm().getResolution());
+        assertEquals(new Rhythm(96, 96), quarter.getRhythm());
+        assertFalse(quarter.getRhythm().isTied());
+    }
+
+    @Test
+    void conditionsAndBuckets() {
+        Bucket bucket = new Bucket(List.of(
+                NoteBuilder.builder().pitch(40).range(0, 479).build(),
+                NoteBuilder.builder().pitch(60).range(0, 479).build(),
+                NoteBuilder.builder().pitch(72).range(0, 479).build()
+        ));
+
+        NoteTransform upperToRight = NoteTransform.identity()
+                .where(note -> 60 <= note.pitch())
+                .where(note -> note.pitch() < 72)
+                .hand(Hand.RIGHT);
+        Bucket mapped = bucket.mapNotes(upperToRight);
+
+        assertEquals(List.of(Hand.NONE, Hand.RIGHT, Hand.NONE), mapped.stream().map(Note::getHand).toList());
+        assertSame(bucket.get(0), mapped.get(0));
+        assertEquals(Hand.NONE, bucket.get(1).getHand(), "source bucket is unchanged");
+
+        // Transposing re-sorts
+        Bucket transposed = bucket.mapNotes(NoteTransform.identity().where(note -> note.pitch() == 40).transpose(40));
+        assertEquals(List.of(60, 72, 80), transposed.stream().map(Note::pitch).toList());
+
+        bucket.replaceAll(NoteTransform.identity().markHeld(true));
+        assertTrue(bucket.stream().allMatch(Note::getIsHeld));
+    }
+
+    @Test
+    void mappingKeepsCustomOrder() {
+        Bucket bucket = new Bucket(List.of(
+                NoteBuilder.builder().pitch(72).range(0, 479).build(),
+                NoteBuilder.builder().pitch(40).range(480, 959).build(),
+                NoteBuilder.builder().pitch(60).range(960, 1439).build()
+        ));
+        Comparator<Note> byStart = Comparator.comparing(Note::getRange);
+        bucket.sort(byStart);
+
+        // Transposing does not re-sort by pitch; the notes stay in time order
+        Bucket transposed = bucket.mapNotes(NoteTransform.identity().transpose(1));
+        assertEquals(List.of(73, 41, 61), transposed.stream().map(Note::pitch).toList());
+        assertSame(byStart, transposed.getOrder());
+
+        // Shifting could break a time order, so it is checked rather than assumed
+        Bucket shifted = bucket.mapNotes(NoteTransform.identity().where(note -> note.pitch() == 72).shift(2000));
+        assertSame(byStart, shifted.getOrder());
+        assertFalse(shifted.isSorted());
+        shifted.sort(byStart);
+        assertEquals(List.of(40, 60, 72), shifted.stream().map(Note::pitch).toList());
+    }
+
+}
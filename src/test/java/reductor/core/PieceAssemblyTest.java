@@ -0,0 +1,147 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.IntervalTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PieceAssemblyTest {
+
+    private static List<Note> randomNotes(int seed) {
+        // Overlapping notes of mixed lengths, with duplicates and notes crossing barlines
+        Random random = new Random(seed);
+        List<Note> notes = new ArrayList<>();
+        int tick = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (random.nextInt(3) == 0) { tick += 120 * (1 + random.nextInt(4)); }
+            int length = 120 * (1 + random.nextInt(16));
+            Note note = NoteBuilder.builder().pitch(30 + random.nextInt(60)).range(tick, tick + length - 1).build();
+            notes.add(note);
+            if (random.nextInt(50) == 0) { notes.add(note); }
+        }
+        // Then a long silence and a last note, so there are enough Measures to be constructed in parallel too
+        notes.add(NoteBuilder.builder().pitch(60).range(tick + 600000 - 480, tick + 600000 - 1).build());
+        return notes;
+    }
+
+    private static Piece build(List<Note> notes, boolean sweepLine, ForkJoinPool pool, boolean lazy) {
+        int lastTick = notes.getLast().stop() + 1;
+        return TestPieces.builder(notes, new Range(0, lastTick), 100)
+                .timeSignature(new TimeSignature(4, 4, new Range(0, 9599)))
+                .timeSignature(new TimeSignature(3, 4, new Range(9600, lastTick)))
+                .sweepLine(sweepLine)
+                .pool(pool)
+                .lazy(lazy)
+                .build();
+    }
+
+    private static void assertSameColumn(Column expected, Column actual) {
+        assertEquals(expected.getRange(), actual.getRange());
+        // Same notes in the same order, including which are held over
+        assertEquals(expected.getNotes().toString(), actual.getNotes().toString());
+        assertEquals(expected.getLeftHand().getNotes().toString(), actual.getLeftHand().getNotes().toString());
+        assertEquals(expected.getRightHand().getNotes().toString(), actual.getRightHand().getNotes().toString());
+    }
+
+    private static void assertSamePiece(Piece tree, Piece other) {
+        assertEquals(tree.getRange(), other.getRange());
+        assertEquals(tree.getColumns().size(), other.getColumns().size());
+        for (int i = 0; i < tree.getColumns().size(); i++) {
+            assertSameColumn(tree.getColumns().get(i), other.getColumns().get(i));
+        }
+
+        assertEquals(tree.getMeasures().size(), other.getMeasures().size());
+        for (int i = 0; i < tree.getMeasures().size(); i++) {
+            Measure expected = tree.getMeasures().get(i);
+            Measure actual = other.getMeasures().get(i);
+            assertEquals(expected.getRange(), actual.getRange());
+            assertEquals(expected.getTimeSignature(), actual.getTimeSignature());
+            // Merged from the Measure's Columns, so this also checks it got the same ones
+            assertEquals(expected.getNotesView().toString(), actual.getNotesView().toString());
+        }
+    }
+
+    @Test
+    void assemblersMatch() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int seed = 0; seed < 4; seed++) {
+            List<Note> notes = randomNotes(seed);
+            Piece tree = build(notes, false, null, false);
+            assertSamePiece(tree, build(notes, true, null, false));
+            assertSamePiece(tree, build(notes, false, pool, false));
+            assertSamePiece(tree, build(notes, true, pool, false));
+            assertSamePiece(tree, build(notes, false, null, true));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void notesAreKeptInTheNoteTable() {
+        List<Note> notes = randomNotes(1);
+        for (boolean lazy : new boolean[]{ false, true }) {
+            Piece piece = build(notes, false, null, lazy);
+            NoteTable table = piece.getNoteTable();
+            assertSame(table, piece.getNoteTable());
+            // One row per distinct note, in range order, as the note tree used to hold them
+            assertEquals(new IntervalTree<>(notes).toList(), table.getNotes());
+            assertEquals(table.getNotes(), piece.getNotes());
+            assertEquals(table.getInstrumentMask(), piece.getInstrumentMask());
+        }
+    }
+
+    @Test
+    void lazyBuildsOnlyWhatIsAskedFor() {
+        List<Note> notes = randomNotes(0);
+        Piece eager = build(notes, false, null, false);
+        Piece lazy = build(notes, false, null, true);
+        assertTrue(lazy.isLazy());
+        assertEquals(eager.getInstrumentMask(), lazy.getInstrumentMask());
+        assertEquals(0, lazy.getMaterializer().getBuiltColumnCount());
+
+        // Two measures' worth
+        Range window = new Range(9600, 12479);
+        List<Measure> expected = eager.getMeasures(window);
+        List<Measure> actual = lazy.getMeasures(window);
+        assertEquals(2, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getRange(), actual.get(i).getRange());
+            assertEquals(expected.get(i).getNotesView().toString(), actual.get(i).getNotesView().toString());
+        }
+        int built = lazy.getMaterializer().getBuiltColumnCount();
+        assertEquals(eager.getColumns(window).size(), built);
+        assertTrue(built < eager.getColumns().size() / 10);
+
+        // Cached, and shared with the Measures
+        List<Column> columns = lazy.getColumns(window);
+        assertSame(columns.getFirst(), lazy.getColumns(window).getFirst());
+        assertSame(columns.getFirst(), actual.getFirst().getColumn(0));
+        assertEquals(built, lazy.getMaterializer().getBuiltColumnCount());
+        assertEquals(2, lazy.getMaterializer().getBuiltMeasureCount());
+    }
+
+    @Test
+    void mappingALazyPieceStaysLazy() {
+        List<Note> notes = randomNotes(0);
+        Piece lazy = build(notes, false, null, true);
+        NoteTransform up = NoteTransform.identity().transpose(2);
+
+        Piece mapped = lazy.mapNotes(up);
+        assertTrue(mapped.isLazy());
+        assertEquals(0, mapped.getMaterializer().getBuiltColumnCount());
+        assertEquals(0, lazy.getMaterializer().getBuiltColumnCount());
+
+        Range window = new Range(9600, 12479);
+        Piece eager = build(notes, false, null, false).mapNotes(up);
+        assertFalse(eager.isLazy());
+        assertEquals(eager.getMeasures(window).getFirst().getNotesView().toString(),
+                mapped.getMeasures(window).getFirst().getNotesView().toString());
+    }
+
+}
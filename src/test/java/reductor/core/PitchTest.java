@@ -3,7 +3,7 @@ package reductor.core;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 public class PitchTest {
@@ -59,5 +59,22 @@ public class PitchTest {
         assertEquals(60, new Pitch("dbb4").value());
     }
 
+    @Test
+    void factoriesShareInstances() {
+        for (int i = 0; i <= 127; i++) {
+            assertSame(Pitch.of(i), Pitch.of(i));
+            assertEquals(new Pitch(i).toString(), Pitch.of(i).toString());
+            assertEquals(i, Pitch.of(i).value());
+        }
+
+        assertSame(Pitch.of("f#4"), Pitch.of("f#4"));
+        assertNotSame(Pitch.of("f#4"), Pitch.of("gb4"), "spellings are kept apart");
+        assertEquals("gb4", Pitch.of("gb4").toString());
+        assertEquals(66, Pitch.of("gb4").value());
+
+        assertThrows(IllegalArgumentException.class, () -> Pitch.of(128));
+        assertThrows(RuntimeException.class, () -> Pitch.of("h4"));
+    }
+
 
 }
@@ -227,6 +227,49 @@ public class RangeTest {
 
         assertEquals(expected, actual);
 
+        // Primitive overload, straight from the (unsorted, duplicated) start ticks
+        int[] startTicks = noteRanges.stream().mapToInt(Range::getLow).toArray();
+        assertEquals(expected, RangeUtil.fromStartTicks(startTicks, 480).toList());
+    }
+
+    @Test
+    void packedEncodingPreservesOrderAndEquality() {
+        List<Range> ranges = RangeUtil.listOf(0, 1, 0, 479, 1, 2, 480, 959, 480, 960, Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+        for (Range a : ranges) {
+            assertEquals(a, Range.unpack(a.pack()));
+            assertEquals(a.getLow(), Range.packedLow(a.pack()));
+            assertEquals(a.getHigh(), Range.packedHigh(a.pack()));
+            for (Range b : ranges) {
+                assertEquals(Integer.signum(a.compareTo(b)), Long.signum(Long.compare(a.pack(), b.pack())), a + " vs " + b);
+            }
+        }
+        assertEquals(java.util.Objects.hash(10, 20), new Range(10, 20).hashCode());
+    }
+
+    @Test
+    void rangeList() {
+        RangeList list = new RangeList(1)
+                .add(480, 959)
+                .add(new Range(0, 479))
+                .add(960, 1439)
+                .add(0, 479);
+
+        assertEquals(4, list.size());
+        list.sort().dedupe();
+        assertEquals(RangeUtil.listOf(0, 479, 480, 959, 960, 1439), list.toList());
+
+        assertEquals(1, list.binarySearch(new Range(480, 959)));
+        assertTrue(list.binarySearch(new Range(480, 960)) < 0);
+
+        assertEquals(0, list.indexContaining(0));
+        assertEquals(1, list.indexContaining(959));
+        assertEquals(2, list.indexContaining(960));
+        assertEquals(-1, list.indexContaining(1440));
+        assertEquals(-1, list.indexContaining(-1));
+
+        assertEquals(new Range(0, 1439), RangeUtil.concatenate(list));
+        assertThrows(IllegalArgumentException.class, () -> list.add(10, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
     }
 
     //@Test
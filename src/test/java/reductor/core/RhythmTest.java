@@ -2,7 +2,7 @@ package reductor.core;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 class RhythmTest {
@@ -36,4 +36,31 @@ class RhythmTest {
 
     }
 
+    @Test
+    void classificationDependsOnlyOnThePassedResolution() {
+
+        assertEquals(RhythmType.QUARTER, RhythmTable.forResolution(96).getBase(96));
+        assertEquals(RhythmType.EIGHTH, RhythmTable.forResolution(960).getBase(480));
+        assertSame(RhythmTable.forResolution(96), RhythmTable.forResolution(96));
+
+        assertTrue(new Rhythm(288, 96).isDotted());
+        assertTrue(new Rhythm(2880, 480).isDotted());
+        assertTrue(new Rhythm(640, 480).isTriplet());
+        assertTrue(new Rhythm(128, 96).isTriplet());
+        assertTrue(new Rhythm(10000, 480).isTied());
+        assertEquals(new Rhythm(720, 480), new Rhythm(720));
+
+        for (int resolution : new int[] { 24, 96, 480, 1024 }) {
+            RhythmTable table = RhythmTable.forResolution(resolution);
+            for (int duration = 0; duration <= 20 * resolution; duration++) {
+                if (!table.isTriplet(duration)) {
+                    assertEquals(RhythmType.getEnumType(duration, resolution), table.getBase(duration));
+                }
+                assertFalse(table.isDotted(duration) && table.isTied(duration));
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> RhythmTable.forResolution(0));
+    }
+
 }
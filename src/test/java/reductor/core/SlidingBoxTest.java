@@ -0,0 +1,98 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class SlidingBoxTest {
+
+    private static Piece randomPiece(long seed) {
+        Random random = new Random(seed);
+        List<Note> notes = new ArrayList<>();
+        for (int beat = 0; beat < 64; beat++) {
+            // Leave some beats silent, so some Columns are empty
+            if (random.nextInt(8) == 0) { continue; }
+            int chord = 1 + random.nextInt(4);
+            for (int i = 0; i < chord; i++) {
+                int length = 240 * (1 + random.nextInt(4));
+                notes.add(NoteBuilder.builder()
+                        .pitch(36 + random.nextInt(48))
+                        .range(beat * 480, beat * 480 + length - 1)
+                        .build());
+            }
+        }
+        return TestPieces.piece(notes, new Range(0, 68 * 480 - 1));
+    }
+
+    // Rescans Columns [first, last), as a Box would
+    private static void assertWindow(PieceFeatures features, SlidingBox box, int first, int last) {
+        int floor = Integer.MAX_VALUE;
+        int ceiling = -1;
+        long count = 0;
+        int mask = 0;
+        for (int i = first; i < last; i++) {
+            if (features.getCount(i) == 0) { continue; }
+            floor = Math.min(floor, features.getLow(i));
+            ceiling = Math.max(ceiling, features.getHigh(i));
+            count += features.getCount(i);
+            mask |= features.getPitchClassMask(i);
+        }
+        assertEquals(first, box.getFirst());
+        assertEquals(last, box.getLast());
+        assertEquals(floor == Integer.MAX_VALUE ? -1 : floor, box.getFloor());
+        assertEquals(ceiling, box.getCeiling());
+        assertEquals(count, box.getNoteCount());
+        assertEquals(mask, box.getPitchClassMask());
+    }
+
+    @Test
+    void fixedWidthMatchesRescan() {
+        PieceFeatures features = randomPiece(7).getFeatures();
+        SlidingBox box = new SlidingBox(features);
+        for (int width : new int[]{1, 3, 8}) {
+            for (int last = 0; last <= features.size(); last++) {
+                int first = Math.max(0, last - width);
+                box.slideTo(first, last);
+                assertWindow(features, box, first, last);
+            }
+        }
+    }
+
+    @Test
+    void tickWindowMatchesRescan() {
+        Piece piece = randomPiece(11);
+        PieceFeatures features = piece.getFeatures();
+        SlidingBox box = new SlidingBox(piece);
+
+        // The last two beats, every eighth note; then backwards, which rebuilds each time
+        List<Integer> ticks = new ArrayList<>();
+        for (int tick = 0; tick < 64 * 480; tick += 240) { ticks.add(tick); }
+        for (int tick = 64 * 480 - 1; 0 <= tick; tick -= 1000) { ticks.add(tick); }
+
+        for (int tick : ticks) {
+            box.slideToEndAt(tick, 960);
+            int first = Math.max(0, features.indexAt(tick - 959));
+            int last = features.indexAt(tick) + 1;
+            assertWindow(features, box, first, last);
+            assertEquals(box.getNoteCount() / (double) box.size(), box.getDensity());
+        }
+    }
+
+    @Test
+    void boxFloorAndCeiling() {
+        Piece piece = randomPiece(3);
+        SlidingBox window = new SlidingBox(piece);
+        window.slideTo(0, piece.getColumns().size());
+
+        Box box = new Box(new ArrayList<>(piece.getColumns()));
+        assertEquals(window.getFloor(), box.getFloor());
+        assertEquals(window.getCeiling(), box.getCeiling());
+    }
+
+}
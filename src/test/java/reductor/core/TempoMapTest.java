@@ -0,0 +1,70 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.midi.MidiUtil;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TempoMapTest {
+
+    // 100 bpm from the second beat (120 bpm by default before it), then exactly 0x07A121 (~119.9999 bpm)
+    private static final List<Tempo> TEMPOS = List.of(
+            new Tempo(100, new Range(480, 1919)),
+            new Tempo(120, new Range(1920, 100_000), 500_001)
+    );
+
+    @Test
+    void conversions() {
+        TempoMap map = new TempoMap(TEMPOS, 480);
+        assertEquals(3, map.size());
+
+        assertEquals(0, map.tickToMicros(0));
+        assertEquals(500_000, map.tickToMicros(480));
+        assertEquals(500_000 + 3 * 600_000, map.tickToMicros(1920));
+        assertEquals(500_000 + 3 * 600_000 + 10 * 500_001, map.tickToMicros(1920 + 10 * 480));
+        assertEquals(500_001, map.getMicrosPerQuarterAt(100_000));
+
+        // One 100 bpm quarter note
+        assertEquals(600_000, map.durationMicros(new Range(480, 959)));
+
+        // Exact, with no drift: sum the duration of every tick
+        long scaled = 0;
+        for (int tick = 0; tick < 20_000; tick++) {
+            assertEquals(scaled / 480, map.tickToMicros(tick), "at " + tick);
+            assertEquals(tick, map.microsToTick(map.tickToMicros(tick)), "at " + tick);
+            scaled += map.getMicrosPerQuarterAt(tick);
+        }
+        assertEquals(479, map.microsToTick(499_999));
+        assertThrows(IllegalArgumentException.class, () -> map.tickToMicros(-1));
+    }
+
+    @Test
+    void batchMatchesSingle() {
+        TempoMap map = new TempoMap(TEMPOS, 480);
+        int[] ticks = { 0, 100, 480, 5000, 1919, 1920, 0, 99_999 };
+        long[] micros = map.ticksToMicros(ticks);
+        for (int i = 0; i < ticks.length; i++) { assertEquals(map.tickToMicros(ticks[i]), micros[i]); }
+
+        assertArrayEquals(ticks, map.microsToTicks(micros));
+    }
+
+    @Test
+    void exactMidiTempo() {
+        // 0x07A121 microseconds per quarter rounds to 119 bpm, which would be about 2 seconds off after 4 minutes
+        byte[] data = { 0x07, (byte) 0xA1, 0x21 };
+        assertEquals(500_001, MidiUtil.getMicrosecondsPerQuarterNote(data));
+        assertEquals(119, MidiUtil.convertMicrosecondsToBPM(data));
+        assertEquals(500_000, new Tempo(120, new Range(0, 1)).microsPerQuarter());
+        assertThrows(IllegalArgumentException.class, () -> new Tempo(0, new Range(0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new Tempo(-60, new Range(0, 1)));
+
+        Piece piece = TestPieces.piece(List.of(NoteBuilder.builder().pitch("C4").range(0, 1919).build()),
+                new Range(0, 1919), 60);
+        assertEquals(4_000_000, piece.getTempoMap().durationMicros(piece.getNotes().getFirst()));
+    }
+
+}
@@ -0,0 +1,38 @@
+package reductor.core;
+
+import reductor.core.builders.PieceBuilder;
+
+import java.util.List;
+
+
+/**
+ * Builds small Pieces for tests: the given notes at 480 ticks per quarter, in C major, with one tempo (and, unless
+ * a builder is asked for, one 4/4 time signature) over the whole range.
+ */
+final class TestPieces {
+
+    static final int RESOLUTION = 480;
+
+    private TestPieces() {}
+
+    /**
+     * Returns a builder with everything but the time signatures.
+     */
+    static PieceBuilder builder(List<Note> notes, Range whole, int bpm) {
+        return PieceBuilder.builder(RESOLUTION)
+                .note(notes)
+                .keySignature(new KeySignature("C", whole))
+                .tempo(new Tempo(bpm, whole));
+    }
+
+    static Piece piece(List<Note> notes, Range whole, int bpm) {
+        return builder(notes, whole, bpm)
+                .timeSignature(new TimeSignature(4, 4, whole))
+                .build();
+    }
+
+    static Piece piece(List<Note> notes, Range whole) {
+        return piece(notes, whole, 100);
+    }
+
+}
@@ -0,0 +1,89 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.TimePitchIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Unit tests for {@link TimePitchIndex}. Every query should match a time-only query filtered by pitch.
+ */
+class TimePitchIndexTest {
+
+    private static final Comparator<Note> BY_PITCH_THEN_RANGE =
+            Comparator.comparingInt(Note::pitch).thenComparing(Note::getRange);
+
+    @Test
+    void constructionWithEmptyList() {
+        TimePitchIndex index = new TimePitchIndex(new ArrayList<>());
+        assertTrue(index.isEmpty());
+        assertEquals(List.of(), index.query(new Range(0, 100), 0, 127));
+        assertEquals(0, index.count(new Range(0, 100), 0, 127));
+    }
+
+    @Test
+    void registerWindow() {
+        Note c3 = NoteBuilder.of("C3", 0, 479);
+        Note c4 = NoteBuilder.of("C4", 0, 479);
+        Note e4 = NoteBuilder.of("E4", 240, 719);
+        Note c5 = NoteBuilder.of("C5", 0, 959);
+        Note g5 = NoteBuilder.of("G5", 480, 959);
+
+        TimePitchIndex index = new TimePitchIndex(List.of(c3, c4, e4, c5, g5));
+
+        List<Note> matches = index.query(new Range(0, 239), 60, 72);
+        matches.sort(BY_PITCH_THEN_RANGE);
+        assertEquals(List.of(c4, c5), matches);
+
+        matches = index.query(new Range(480, 600), 60, 72);
+        matches.sort(BY_PITCH_THEN_RANGE);
+        assertEquals(List.of(e4, c5), matches);
+
+        assertEquals(5, index.count(new Range(0, 959), 0, 127));
+        assertEquals(0, index.count(new Range(0, 959), 0, 47));
+    }
+
+    @Test
+    void matchesFilteredTimeQuery() {
+
+        Random random = new Random(42);
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int low = random.nextInt(10_000);
+            int pitch = random.nextInt(128);
+            notes.add(NoteBuilder.builder()
+                    .pitch(pitch)
+                    .range(low, low + 1 + random.nextInt(500))
+                    .build());
+        }
+
+        TimePitchIndex index = new TimePitchIndex(notes);
+
+        for (int q = 0; q < 500; q++) {
+            int low = random.nextInt(10_500);
+            Range window = new Range(low, low + 1 + random.nextInt(1_000));
+            int lowPitch = random.nextInt(128);
+            int highPitch = lowPitch + random.nextInt(128 - lowPitch);
+
+            List<Note> expected = new ArrayList<>(notes.stream()
+                    .filter(n -> n.getRange().overlaps(window))
+                    .filter(n -> lowPitch <= n.pitch()  &&  n.pitch() <= highPitch)
+                    .distinct()
+                    .toList());
+            List<Note> actual = index.query(window, lowPitch, highPitch);
+            expected.sort(BY_PITCH_THEN_RANGE);
+            actual.sort(BY_PITCH_THEN_RANGE);
+
+            assertEquals(expected, actual, window + " pitches " + lowPitch + ".." + highPitch);
+            assertEquals(expected.size(), index.count(window, lowPitch, highPitch));
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package reductor.core;
+
+import org.junit.jupiter.api.Test;
+import reductor.core.builders.NoteBuilder;
+import reductor.util.IntervalTree;
+import reductor.util.Timeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TimelineTest {
+
+    // 4/4 until 1919, a gap, then 3/4 from 2400 and 6/8 from 3840 (given out of order)
+    private static final List<TimeSignature> TIME_SIGS = List.of(
+            new TimeSignature(3, 4, new Range(2400, 3839)),
+            new TimeSignature(4, 4, new Range(0, 1919)),
+            new TimeSignature(6, 8, new Range(3840, 9599))
+    );
+
+    @Test
+    void matchesIntervalTree() {
+        Timeline<TimeSignature> timeline = new Timeline<>(TIME_SIGS);
+        IntervalTree<TimeSignature> tree = new IntervalTree<>(TIME_SIGS);
+
+        assertEquals(3, timeline.size());
+        assertEquals(List.of(TIME_SIGS.get(1), TIME_SIGS.get(0), TIME_SIGS.get(2)), timeline.toList());
+        assertEquals(2400, timeline.getStart(1));
+
+        Timeline<TimeSignature>.Cursor cursor = timeline.cursor();
+        for (int tick = 0; tick < 10000; tick += 60) {
+            assertSame(tree.findFirst(tick), timeline.at(tick), "at " + tick);
+            assertSame(tree.findFirst(tick), cursor.at(tick), "at " + tick);
+        }
+        assertNull(timeline.at(2000));
+        assertEquals(-1, timeline.indexAt(-1));
+        assertEquals(2, timeline.indexAt(9599));
+        assertEquals(-1, timeline.indexAt(9600));
+    }
+
+    @Test
+    void cursorGoesBackwards() {
+        Timeline<TimeSignature>.Cursor cursor = new Timeline<>(TIME_SIGS).cursor();
+        assertSame(TIME_SIGS.get(2), cursor.at(5000));
+        assertSame(TIME_SIGS.get(1), cursor.at(100));
+        assertNull(cursor.at(2000));
+        assertSame(TIME_SIGS.get(0), cursor.at(2400));
+        assertNull(cursor.at(20000));
+        assertSame(TIME_SIGS.get(1), cursor.at(0));
+    }
+
+    @Test
+    void duplicatesAndOverlaps() {
+        List<TimeSignature> duplicated = new ArrayList<>(TIME_SIGS);
+        duplicated.add(new TimeSignature(2, 4, new Range(0, 1919)));
+        Timeline<TimeSignature> timeline = new Timeline<>(duplicated);
+        assertEquals(3, timeline.size());
+        assertSame(TIME_SIGS.get(1), timeline.at(0));
+
+        List<TimeSignature> overlapping = new ArrayList<>(TIME_SIGS);
+        overlapping.add(new TimeSignature(2, 4, new Range(1000, 2000)));
+        assertThrows(IllegalArgumentException.class, () -> new Timeline<>(overlapping));
+
+        assertTrue(new Timeline<TimeSignature>(List.of()).isEmpty());
+        assertNull(new Timeline<TimeSignature>(List.of()).cursor().at(0));
+    }
+
+    @Test
+    void pieceBuilderTakesTimelines() {
+        TimeSignature common = new TimeSignature(4, 4, new Range(0, 1919));
+        TimeSignature waltz = new TimeSignature(3, 4, new Range(1920, 3359));
+        Piece piece = TestPieces.builder(List.of(NoteBuilder.builder().pitch("C4").range(0, 3359).build()),
+                        new Range(0, 3360), 100)
+                .timeSignature(new Timeline<>(List.of(common)))
+                .timeSignature(new Timeline<>(List.of(waltz)))
+                .build();
+
+        assertSame(common, piece.getTimeSignatureAt(1919));
+        assertSame(waltz, piece.getTimeSignatureAt(1920));
+        assertEquals(2, piece.getMeasures().size());
+    }
+
+}